@@ -14,6 +14,8 @@ repositories {
 
 dependencies {
     implementation("org.postgresql:postgresql:42.6.0")
+    implementation("com.zaxxer:HikariCP:5.0.1")
+    implementation("com.github.ben-manes.caffeine:caffeine:3.1.6")
     implementation("org.junit.jupiter:junit-jupiter:5.8.1")
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.8.1")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.8.1")
@@ -22,10 +24,39 @@ dependencies {
     testImplementation("org.testcontainers:postgresql:1.18.3")
 }
 
+// The benchmarks are compiled against the plugin classes and run with the JMH runner, so they only
+// need the JMH artifacts from Maven Central and no Gradle plugin
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().runtimeClasspath
+}
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.36")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.36")
+    "jmhImplementation"("org.testcontainers:postgresql:1.18.3")
+}
+
 
 
 tasks.getByName<Test>("test") {
     useJUnitPlatform()
+    // Queries on the thread registered as server thread fail the tests
+    systemProperty("groupsystem.query-guard.strict", "true")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks, optionally only those matching -PjmhInclude=<regex>."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    // One JSON file per version, so releases can be compared with each other
+    val resultsFile = layout.buildDirectory.file("results/jmh/results-${project.version}.json")
+    args("-rf", "json", "-rff", resultsFile.get().asFile.path)
+    // Reports the bytes allocated per operation next to the time
+    args("-prof", "gc")
+    findProperty("jmhInclude")?.let { args(it) }
+    doFirst { resultsFile.get().asFile.parentFile.mkdirs() }
 }
 
 
@@ -0,0 +1,78 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * The BenchmarkDatabase class runs the PostgreSQL container of database backed benchmarks. Each
+ * benchmark fork starts its own container, migrates the schema and fills it with the groups and
+ * players the benchmarks read.
+ */
+final class BenchmarkDatabase {
+
+  private static final String UUID_PREFIX = "00000000-0000-0000-0000-";
+
+  private static PostgreSQLContainer<?> container;
+
+  private BenchmarkDatabase() {
+  }
+
+  /**
+   * Starts the container and fills the database, unless it has been started already.
+   *
+   * @param playerCount the number of players to create, every tenth one is a temporary VIP
+   * @throws SQLException if the database cannot be set up
+   */
+  static synchronized void start(int playerCount) throws SQLException {
+    if (container != null) {
+      return;
+    }
+
+    container = new PostgreSQLContainer<>("postgres:latest");
+    container.start();
+    DatabaseManager.connect(container.getUsername(), container.getPassword(), "group",
+        container.getJdbcUrl());
+    DatabaseManager.migrate();
+
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("INSERT INTO \"group\" (name, prefix, description, weight) VALUES "
+          + "('vip', '&6VIP', 'vip', 5), ('admin', '&4Admin', 'staff', 1), "
+          + "('moderator', '&2Mod', 'staff', 2), ('builder', '&bBuilder', 'team', 3)");
+      statement.executeUpdate("INSERT INTO player (uuid, name) "
+          + "SELECT '" + UUID_PREFIX + "' || lpad(i::text, 12, '0'), 'Player' || i "
+          + "FROM generate_series(0, " + (playerCount - 1) + ") AS i");
+      statement.executeUpdate("INSERT INTO joingroup (uuid, groupid) "
+          + "SELECT uuid, (SELECT groupid FROM \"group\" WHERE name = 'player') FROM player");
+      statement.executeUpdate("INSERT INTO joingroup (uuid, groupid, joinuntil) "
+          + "SELECT uuid, (SELECT groupid FROM \"group\" WHERE name = 'vip'), "
+          + "LOCALTIMESTAMP + interval '1 day' FROM player "
+          + "WHERE right(uuid, 12)::bigint % 10 = 0");
+    }
+  }
+
+  /**
+   * Retrieves the UUID of a player created by {@link #start(int)}. The UUIDs are valid, so they can
+   * be parsed and looked up by code that works with {@link java.util.UUID} keys.
+   *
+   * @param index the index of the player
+   * @return the UUID of the player
+   */
+  static String uuid(int index) {
+    return UUID_PREFIX + String.format("%012d", index);
+  }
+
+  /**
+   * Closes the connection pool and stops the container.
+   */
+  static synchronized void stop() {
+    DatabaseManager.disconnect();
+    if (container != null) {
+      container.stop();
+      container = null;
+    }
+  }
+}
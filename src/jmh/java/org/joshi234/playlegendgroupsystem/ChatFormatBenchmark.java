@@ -0,0 +1,114 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.ChatColor;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the legacy chat path, a precomputed {@code %s} format that the server fills in and
+ * parses into a component, with composing the message from the cached prefix components of
+ * {@link ChatFormats}. Several threads chat at once, like the async chat threads of the server.
+ * The gc profiler reports the garbage per message as {@code gc.alloc.rate.norm}. Requires a running
+ * Docker daemon, like the tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ChatFormatBenchmark {
+
+  private static final String MESSAGE = "Does anyone want to trade diamonds for emeralds?";
+
+  @Param({"1000"})
+  private int playerCount;
+
+  private final LegacyComponentSerializer legacySerializer =
+      LegacyComponentSerializer.legacySection();
+  private final Component message = Component.text(MESSAGE);
+  private UUID[] playerIds;
+  private String[] names;
+  private Component[] displayNames;
+  private String[] legacyFormats;
+
+  /**
+   * Starts the database, caches the prefix of every player and builds their chat formats.
+   *
+   * @throws SQLException if the database cannot be set up
+   */
+  @Setup
+  public void setUp() throws SQLException {
+    BenchmarkDatabase.start(playerCount);
+    playerIds = new UUID[playerCount];
+    names = new String[playerCount];
+    displayNames = new Component[playerCount];
+    legacyFormats = new String[playerCount];
+
+    JoinGroup joinGroup = new JoinGroup();
+    for (int i = 0; i < playerCount; i++) {
+      String uuid = BenchmarkDatabase.uuid(i);
+      String prefix = joinGroup.getPrefix(uuid);
+      playerIds[i] = UUID.fromString(uuid);
+      names[i] = "Player" + i;
+      displayNames[i] = Component.text(names[i]);
+      legacyFormats[i] = ChatColor.translateAlternateColorCodes('&', "[" + prefix + "&f] %s: %s");
+      ChatFormats.prefixChanged(playerIds[i], prefix);
+    }
+  }
+
+  /**
+   * Stops the database.
+   */
+  @TearDown
+  public void tearDown() {
+    BenchmarkDatabase.stop();
+  }
+
+  /**
+   * Fills in and parses a precomputed legacy format, as the server does for the deprecated chat
+   * event.
+   *
+   * @return the chat message
+   */
+  @Benchmark
+  public Component legacyFormat() {
+    int player = nextPlayer();
+    return legacySerializer.deserialize(
+        String.format(legacyFormats[player], names[player], MESSAGE));
+  }
+
+  /**
+   * Composes the chat message from the cached prefix component, as the chat renderer does.
+   *
+   * @return the chat message
+   */
+  @Benchmark
+  public Component chatRenderer() {
+    int player = nextPlayer();
+    return ChatFormats.render(playerIds[player], displayNames[player], message);
+  }
+
+  private int nextPlayer() {
+    return ThreadLocalRandom.current().nextInt(playerCount);
+  }
+}
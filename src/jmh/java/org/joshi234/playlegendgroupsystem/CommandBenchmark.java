@@ -0,0 +1,142 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.joshi234.playlegendgroupsystem.commands.GroupCommand;
+import org.joshi234.playlegendgroupsystem.commands.tabcompleter.GroupTabCompleter;
+import org.joshi234.playlegendgroupsystem.database.group.GroupCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the argument parsing and tab completion of the group command. The group names are
+ * loaded from a PostgreSQL container into the group catalog once, so completing them does not
+ * touch the database. Requires a running Docker daemon, like the tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandBenchmark {
+
+  private static final String[] PLAIN_ARGS = {"add", "Joshi234", "vip", "1", "2", "30", "0"};
+  private static final String[] QUOTED_ARGS =
+      {"create", "team", "&bTeam", "3", "\"The", "building", "and", "event", "team\""};
+
+  @Param({"10000"})
+  private int knownPlayers;
+
+  private final GroupTabCompleter completer = new GroupTabCompleter();
+  private final GroupCommand groupCommand = new GroupCommand(completer);
+  private CommandSender sender;
+  private Command command;
+
+  /**
+   * Loads the group catalog and the known player names.
+   *
+   * @throws SQLException if the database cannot be set up
+   */
+  @Setup
+  public void setUp() throws SQLException {
+    BenchmarkDatabase.start(1);
+    GroupCatalog.reload();
+
+    List<String> names = new ArrayList<>(knownPlayers);
+    for (int i = 0; i < knownPlayers; i++) {
+      names.add("Player" + i);
+    }
+    PlayerInformation.addKnownNames(names);
+
+    sender = (CommandSender) Proxy.newProxyInstance(CommandSender.class.getClassLoader(),
+        new Class<?>[]{CommandSender.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "isOp" -> true;
+          case "getName" -> "Joshi234";
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          default -> null;
+        });
+    command = new Command("group") {
+      @Override
+      public boolean execute(CommandSender sender, String label, String[] args) {
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Stops the database.
+   */
+  @TearDown
+  public void tearDown() {
+    BenchmarkDatabase.stop();
+  }
+
+  /**
+   * Formats arguments without quotes.
+   *
+   * @return the formatted arguments
+   */
+  @Benchmark
+  public String[] formatPlainArgs() {
+    return groupCommand.argFormatter(PLAIN_ARGS);
+  }
+
+  /**
+   * Formats arguments with a quoted description.
+   *
+   * @return the formatted arguments
+   */
+  @Benchmark
+  public String[] formatQuotedArgs() {
+    return groupCommand.argFormatter(QUOTED_ARGS);
+  }
+
+  /**
+   * Completes the name of a subcommand.
+   *
+   * @return the completions
+   */
+  @Benchmark
+  public List<String> completeSubCommand() {
+    return completer.onTabComplete(sender, command, "group", new String[]{"re"});
+  }
+
+  /**
+   * Completes a player name among all known players.
+   *
+   * @return the completions
+   */
+  @Benchmark
+  public List<String> completePlayerName() {
+    return completer.onTabComplete(sender, command, "group", new String[]{"add", "Player12"});
+  }
+
+  /**
+   * Completes a group name.
+   *
+   * @return the completions
+   */
+  @Benchmark
+  public List<String> completeGroupName() {
+    return completer.onTabComplete(sender, command, "group",
+        new String[]{"add", "Joshi234", "m"});
+  }
+}
@@ -0,0 +1,66 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.util.concurrent.TimeUnit;
+import org.bukkit.ChatColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares formatting the join message with the old translate and replace chain against rendering
+ * a precompiled {@link MessageTemplate}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTemplateBenchmark {
+
+  private static final String JOIN_MESSAGE = "Welcome &f[[prefix]&f] [playername] to the Server!";
+
+  private final String[] keys = {"prefix", "playername"};
+  private final String[] values = {"&eVIP", "Joshi234"};
+
+  private MessageTemplate template;
+
+  /**
+   * Compiles the join message, as it is done when the language files are loaded.
+   */
+  @Setup
+  public void setUp() {
+    template = MessageTemplate.compile(JOIN_MESSAGE);
+  }
+
+  /**
+   * Translates the color codes, replaces every key in its own pass and translates the result
+   * again, as the string formatter used to.
+   *
+   * @return the formatted message
+   */
+  @Benchmark
+  public String translateAndReplace() {
+    String message = ChatColor.translateAlternateColorCodes('&', JOIN_MESSAGE);
+    message = message.replace("[" + keys[0] + "]", values[0]);
+    message = message.replace("[" + keys[1] + "]", values[1]);
+    return ChatColor.translateAlternateColorCodes('&', message);
+  }
+
+  /**
+   * Renders the precompiled join message in a single pass.
+   *
+   * @return the formatted message
+   */
+  @Benchmark
+  public String compiledTemplate() {
+    return template.render(keys, values, 2, true);
+  }
+}
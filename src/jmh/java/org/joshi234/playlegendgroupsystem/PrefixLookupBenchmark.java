@@ -0,0 +1,87 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link JoinGroup#getPrefix(String)} when the prefix is cached and when it has to be
+ * loaded from a PostgreSQL container. Requires a running Docker daemon, like the tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixLookupBenchmark {
+
+  @Param({"1000"})
+  private int playerCount;
+
+  private final JoinGroup joinGroup = new JoinGroup();
+  private String[] uuids;
+  private int next;
+
+  /**
+   * Starts the database and caches the prefix of every player.
+   *
+   * @throws SQLException if the database cannot be set up
+   */
+  @Setup
+  public void setUp() throws SQLException {
+    BenchmarkDatabase.start(playerCount);
+    uuids = new String[playerCount];
+    for (int i = 0; i < playerCount; i++) {
+      uuids[i] = BenchmarkDatabase.uuid(i);
+      joinGroup.getPrefix(uuids[i]);
+    }
+  }
+
+  /**
+   * Stops the database.
+   */
+  @TearDown
+  public void tearDown() {
+    BenchmarkDatabase.stop();
+  }
+
+  /**
+   * Looks up a cached prefix, as it is done for every chat message.
+   *
+   * @return the prefix
+   */
+  @Benchmark
+  public String cachedPrefix() {
+    return joinGroup.getPrefix(nextUuid());
+  }
+
+  /**
+   * Looks up a prefix that is not cached, as it is done after a membership changed.
+   *
+   * @return the prefix
+   */
+  @Benchmark
+  public String uncachedPrefix() {
+    String uuid = nextUuid();
+    JoinGroup.invalidatePrefix(uuid);
+    return joinGroup.getPrefix(uuid);
+  }
+
+  private String nextUuid() {
+    next = next + 1 == uuids.length ? 0 : next + 1;
+    return uuids[next];
+  }
+}
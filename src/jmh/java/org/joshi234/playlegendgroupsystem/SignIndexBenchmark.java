@@ -0,0 +1,105 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares one sign update cycle of the old nested loop over every player and every sign with the
+ * chunk based {@link SignIndex}. Signs and players are spread over a square lobby area.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignIndexBenchmark {
+
+  private static final double SIGN_RANGE = 128;
+
+  @Param({"100", "1000", "10000"})
+  private int signCount;
+
+  @Param({"200"})
+  private int playerCount;
+
+  @Param({"2048"})
+  private int areaSize;
+
+  private final List<Location> signs = new ArrayList<>();
+  private final List<Location> players = new ArrayList<>();
+  private final SignIndex signIndex = new SignIndex();
+
+  /**
+   * Places the signs and players at random positions in a single world.
+   */
+  @Setup
+  public void setUp() {
+    World world = (World) Proxy.newProxyInstance(World.class.getClassLoader(),
+        new Class<?>[]{World.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "getName" -> "world";
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          default -> null;
+        });
+    Random random = new Random(42);
+
+    for (int i = 0; i < signCount; i++) {
+      Location sign = new Location(world, random.nextInt(areaSize), 64,
+          random.nextInt(areaSize));
+      signs.add(sign);
+      signIndex.add(world.getName(), sign);
+    }
+    for (int i = 0; i < playerCount; i++) {
+      players.add(new Location(world, random.nextDouble() * areaSize, 64,
+          random.nextDouble() * areaSize));
+    }
+  }
+
+  /**
+   * Checks every sign for every player, as the sign handler used to.
+   *
+   * @param blackhole consumes the signs in range
+   */
+  @Benchmark
+  public void linearScan(Blackhole blackhole) {
+    for (Location player : players) {
+      for (Location sign : signs) {
+        if (player.getWorld().equals(sign.getWorld()) && player.distance(sign) < SIGN_RANGE) {
+          blackhole.consume(sign);
+        }
+      }
+    }
+  }
+
+  /**
+   * Visits only the signs in the chunks around every player.
+   *
+   * @param blackhole consumes the signs in range
+   */
+  @Benchmark
+  public void chunkIndex(Blackhole blackhole) {
+    for (Location player : players) {
+      signIndex.forEachNear(player.getWorld().getName(), player.getX(), player.getY(),
+          player.getZ(), SIGN_RANGE, blackhole::consume);
+    }
+  }
+}
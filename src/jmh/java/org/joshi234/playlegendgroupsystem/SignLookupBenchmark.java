@@ -0,0 +1,90 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.joshi234.playlegendgroupsystem.database.group.Sign;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Sign#isSignPresent(Location)}, which is called for every block a player
+ * interacts with, for blocks with and without a group sign.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignLookupBenchmark {
+
+  private static final int LOOKUPS = 1024;
+
+  @Param({"100", "10000"})
+  private int signCount;
+
+  private final Location[] signs = new Location[LOOKUPS];
+  private final Location[] blocks = new Location[LOOKUPS];
+  private int next;
+
+  /**
+   * Tracks the signs at random positions and picks the looked up blocks.
+   */
+  @Setup
+  public void setUp() {
+    World world = (World) Proxy.newProxyInstance(World.class.getClassLoader(),
+        new Class<?>[]{World.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "getName" -> "world";
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          default -> null;
+        });
+    Random random = new Random(42);
+
+    Location[] tracked = new Location[signCount];
+    for (int i = 0; i < signCount; i++) {
+      tracked[i] = new Location(world, random.nextInt(2048), 64, random.nextInt(2048));
+      Sign.trackSign(tracked[i], i + 1);
+    }
+    for (int i = 0; i < LOOKUPS; i++) {
+      signs[i] = tracked[random.nextInt(signCount)];
+      // Signs are only placed at height 64
+      blocks[i] = new Location(world, random.nextInt(2048), 65, random.nextInt(2048));
+    }
+  }
+
+  /**
+   * Checks a block that holds a sign.
+   *
+   * @return true
+   */
+  @Benchmark
+  public boolean signPresent() {
+    next = (next + 1) & (LOOKUPS - 1);
+    return Sign.isSignPresent(signs[next]);
+  }
+
+  /**
+   * Checks a block that holds no sign.
+   *
+   * @return false
+   */
+  @Benchmark
+  public boolean signAbsent() {
+    next = (next + 1) & (LOOKUPS - 1);
+    return Sign.isSignPresent(blocks[next]);
+  }
+}
@@ -0,0 +1,86 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.text.Component;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link StringFormatter} chains the commands use to build their messages. The
+ * English language file is loaded as the main configuration, so the messages are looked up and
+ * rendered like localized ones without a running server.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringFormatterBenchmark {
+
+  /**
+   * Loads the English messages.
+   *
+   * @throws Exception if the language file cannot be read
+   */
+  @Setup
+  public void setUp() throws Exception {
+    try (Reader reader = new InputStreamReader(
+        StringFormatterBenchmark.class.getResourceAsStream("/messages-en.yml"),
+        StandardCharsets.UTF_8)) {
+      Configuration.setConfig(YamlConfiguration.loadConfiguration(reader));
+    }
+  }
+
+  /**
+   * Formats a message with two placeholders, as the add command does on success.
+   *
+   * @return the formatted message
+   */
+  @Benchmark
+  public String replaceTwoKeys() {
+    return new StringFormatter().getFormattedString("group-commands.add.message-success")
+        .replaceKey("playername", "Joshi234")
+        .replaceKey("groupname", "vip")
+        .formatMessage()
+        .getMessage();
+  }
+
+  /**
+   * Formats a message and converts it to a component, as it is done for chat messages.
+   *
+   * @return the formatted component
+   */
+  @Benchmark
+  public Component replaceKeysToComponent() {
+    return new StringFormatter().getFormattedString("group-commands.add.message-success")
+        .replaceKey("playername", "Joshi234")
+        .replaceKey("groupname", "&6vip")
+        .formatMessage()
+        .getComponent();
+  }
+
+  /**
+   * Formats the multi line help message without placeholders.
+   *
+   * @return the formatted message
+   */
+  @Benchmark
+  public String stringList() {
+    return new StringFormatter().getFormattedStringListAsString("group-commands.help.message")
+        .formatMessage()
+        .getMessage();
+  }
+}
@@ -0,0 +1,234 @@
+package org.joshi234.playlegendgroupsystem;
+
+/**
+ * The BlockPositionMap class maps block positions to integer IDs without boxing. Positions are
+ * packed into a single long and stored in an open addressing hash table, so lookups, insertions and
+ * removals take constant time and do not allocate. The class is not thread-safe.
+ */
+public class BlockPositionMap {
+
+  /**
+   * The value returned by lookups for positions that are not in the map.
+   */
+  public static final int NO_ID = -1;
+
+  private long[] keys = new long[16];
+  private int[] ids = new int[16];
+  private int size;
+
+  // The packed key 0 marks empty slots, so the position 0, 0, 0 is stored separately
+  private boolean hasZeroKey;
+  private int zeroKeyId;
+
+  /**
+   * Packs block coordinates into a single long. X and Z must fit in 26 bits and Y in 12 bits.
+   *
+   * @param x the x coordinate of the block
+   * @param y the y coordinate of the block
+   * @param z the z coordinate of the block
+   * @return the packed position
+   */
+  public static long pack(int x, int y, int z) {
+    return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+  }
+
+  /**
+   * Extracts the x coordinate from a packed position.
+   *
+   * @param position the packed position
+   * @return the x coordinate
+   */
+  public static int unpackX(long position) {
+    return (int) (position >> 38);
+  }
+
+  /**
+   * Extracts the y coordinate from a packed position.
+   *
+   * @param position the packed position
+   * @return the y coordinate
+   */
+  public static int unpackY(long position) {
+    return (int) (position << 52 >> 52);
+  }
+
+  /**
+   * Extracts the z coordinate from a packed position.
+   *
+   * @param position the packed position
+   * @return the z coordinate
+   */
+  public static int unpackZ(long position) {
+    return (int) (position << 26 >> 38);
+  }
+
+  /**
+   * Checks if a position is in the map.
+   *
+   * @param position the packed position
+   * @return true if the position is in the map, false otherwise
+   */
+  public boolean contains(long position) {
+    return get(position) != NO_ID;
+  }
+
+  /**
+   * Retrieves the ID stored for a position.
+   *
+   * @param position the packed position
+   * @return the ID of the position, or {@link #NO_ID} if the position is not in the map
+   */
+  public int get(long position) {
+    if (position == 0) {
+      return hasZeroKey ? zeroKeyId : NO_ID;
+    }
+
+    int mask = keys.length - 1;
+    for (int slot = slot(position, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+      if (keys[slot] == position) {
+        return ids[slot];
+      }
+    }
+    return NO_ID;
+  }
+
+  /**
+   * Stores the ID of a position, replacing the previous ID if there is one.
+   *
+   * @param position the packed position
+   * @param id       the ID of the position
+   */
+  public void put(long position, int id) {
+    if (position == 0) {
+      if (!hasZeroKey) {
+        hasZeroKey = true;
+        size++;
+      }
+      zeroKeyId = id;
+      return;
+    }
+
+    int mask = keys.length - 1;
+    int slot = slot(position, mask);
+    while (keys[slot] != 0) {
+      if (keys[slot] == position) {
+        ids[slot] = id;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = position;
+    ids[slot] = id;
+    if (++size * 2 > keys.length) {
+      resize(keys.length * 2);
+    }
+  }
+
+  /**
+   * Removes a position from the map.
+   *
+   * @param position the packed position
+   * @return the ID the position had, or {@link #NO_ID} if the position was not in the map
+   */
+  public int remove(long position) {
+    if (position == 0) {
+      if (!hasZeroKey) {
+        return NO_ID;
+      }
+      hasZeroKey = false;
+      size--;
+      return zeroKeyId;
+    }
+
+    int mask = keys.length - 1;
+    int slot = slot(position, mask);
+    while (keys[slot] != position) {
+      if (keys[slot] == 0) {
+        return NO_ID;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    int id = ids[slot];
+    size--;
+
+    // Shift the following entries of the probe sequence back, so no tombstones are needed
+    int free = slot;
+    for (int next = (slot + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+      int ideal = slot(keys[next], mask);
+      if (((next - ideal) & mask) >= ((next - free) & mask)) {
+        keys[free] = keys[next];
+        ids[free] = ids[next];
+        free = next;
+      }
+    }
+    keys[free] = 0;
+
+    return id;
+  }
+
+  /**
+   * Retrieves the number of positions in the map.
+   *
+   * @return the number of positions
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Calls the action for every position in the map.
+   *
+   * @param action the action called with every packed position and its ID
+   */
+  public void forEach(PositionConsumer action) {
+    if (hasZeroKey) {
+      action.accept(0, zeroKeyId);
+    }
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != 0) {
+        action.accept(keys[slot], ids[slot]);
+      }
+    }
+  }
+
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldIds = ids;
+    keys = new long[capacity];
+    ids = new int[capacity];
+
+    int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        int slot = slot(oldKeys[i], mask);
+        while (keys[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        ids[slot] = oldIds[i];
+      }
+    }
+  }
+
+  private static int slot(long position, int mask) {
+    long hash = position * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  /**
+   * The PositionConsumer interface is called with the entries of a {@link BlockPositionMap}.
+   */
+  @FunctionalInterface
+  public interface PositionConsumer {
+
+    /**
+     * Called with a single entry.
+     *
+     * @param position the packed position
+     * @param id       the ID of the position
+     */
+    void accept(long position, int id);
+  }
+}
@@ -0,0 +1,158 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroupRepository;
+
+/**
+ * The ChatFormats class keeps the start of the chat messages of every player, their prefix and
+ * name, as a ready-made component. A chat message only puts the message next to it, without
+ * parsing any color codes. A player's entry is keyed on their prefix in the prefix cache of
+ * {@link JoinGroup}, so it is rebuilt when the cached prefix changes or expires with a membership.
+ * The chat threads never query the database: a prefix that is not cached is loaded in the
+ * background, and the previous prefix is shown until then.
+ */
+public class ChatFormats {
+
+  private static final String PLACEHOLDER_PREFIX = "&4none";
+
+  private static final Component SPACE = Component.space();
+  private static final Component SEPARATOR = Component.text(": ");
+  private static final Component MESSAGE = Component.text("", NamedTextColor.WHITE);
+
+  private static final Map<UUID, ChatFormat> formats = new ConcurrentHashMap<>();
+  private static final Set<UUID> loadingPrefixes = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The chat format of a player.
+   *
+   * @param uuid            the player's UUID as the key of the prefix cache
+   * @param prefix          the prefix with {@code &} color codes
+   * @param prefixComponent the component of the bracketed prefix
+   * @param displayName     the display name the head was built for, or {@code null}
+   * @param head            the message start {@code [prefix] name: }, or {@code null}
+   */
+  private record ChatFormat(String uuid, String prefix, Component prefixComponent,
+                            Component displayName, Component head) {
+
+    private ChatFormat withPrefix(String newPrefix) {
+      if (prefix.equals(newPrefix)) {
+        return this;
+      }
+      return new ChatFormat(uuid, newPrefix, PrefixComponents.getPrefix(newPrefix), null, null)
+          .withDisplayName(displayName);
+    }
+
+    private ChatFormat withDisplayName(Component newDisplayName) {
+      if (newDisplayName == null) {
+        return this;
+      }
+      return new ChatFormat(uuid, prefix, prefixComponent, newDisplayName,
+          Component.textOfChildren(prefixComponent, SPACE, newDisplayName, SEPARATOR));
+    }
+  }
+
+  /**
+   * Composes a chat message as {@code [prefix] name: message}, the same way the legacy format
+   * {@code [prefix&f] %s: %s} was shown. The message is only put next to the cached start of the
+   * player's messages, which allocates a single component and its list of children.
+   *
+   * @param uuid        the UUID of the sender
+   * @param displayName the display name of the sender
+   * @param message     the message
+   * @return the composed chat message
+   */
+  public static Component render(UUID uuid, Component displayName, Component message) {
+    ChatFormat format = getFormat(uuid);
+    if (!displayName.equals(format.displayName())) {
+      format = formats.compute(uuid,
+          (key, current) -> (current != null ? current : newFormat(key, PLACEHOLDER_PREFIX))
+              .withDisplayName(displayName));
+    }
+    return MESSAGE.children(List.of(format.head(), message));
+  }
+
+  /**
+   * Retrieves the bracketed prefix component of a player. The component is looked up again if the
+   * player's cached prefix differs from the one it was built for. A prefix that is not cached, for
+   * example because a membership expired, is loaded in the background, and the previous prefix is
+   * returned until then.
+   *
+   * @param uuid the player's UUID
+   * @return the component of the bracketed prefix
+   */
+  public static Component getPrefix(UUID uuid) {
+    return getFormat(uuid).prefixComponent();
+  }
+
+  /**
+   * Sets the prefix of a player, so the next chat message does not have to build the format. The
+   * prefix component is only looked up again if the prefix changed.
+   *
+   * @param uuid   the player's UUID
+   * @param prefix the prefix with {@code &} color codes
+   */
+  public static void prefixChanged(UUID uuid, String prefix) {
+    update(uuid, prefix);
+  }
+
+  /**
+   * Removes the chat format of a player who left the server.
+   *
+   * @param uuid the player's UUID
+   */
+  public static void playerQuit(UUID uuid) {
+    formats.remove(uuid);
+  }
+
+  /**
+   * Removes every chat format, so they are built again from the prefix cache on the next message.
+   */
+  public static void invalidateAll() {
+    formats.clear();
+  }
+
+  private static ChatFormat getFormat(UUID uuid) {
+    ChatFormat format = formats.get(uuid);
+    String prefix = JoinGroup.getCachedPrefix(format != null ? format.uuid() : uuid.toString());
+    if (prefix == null) {
+      loadPrefix(uuid);
+      return format != null ? format : update(uuid, PLACEHOLDER_PREFIX);
+    }
+    return format != null && format.prefix().equals(prefix) ? format : update(uuid, prefix);
+  }
+
+  private static ChatFormat update(UUID uuid, String prefix) {
+    return formats.compute(uuid,
+        (key, current) -> current != null ? current.withPrefix(prefix) : newFormat(key, prefix));
+  }
+
+  private static ChatFormat newFormat(UUID uuid, String prefix) {
+    return new ChatFormat(uuid.toString(), prefix, PrefixComponents.getPrefix(prefix), null, null);
+  }
+
+  private static void loadPrefix(UUID uuid) {
+    if (!loadingPrefixes.add(uuid)) {
+      return;
+    }
+
+    JoinGroupRepository.getPrefixAsync(uuid.toString(), false)
+        .whenComplete((prefix, error) -> {
+          loadingPrefixes.remove(uuid);
+          if (error != null) {
+            DatabaseExecutor.logFailure(error);
+            return;
+          }
+
+          // A player who left in the meantime does not get a new entry
+          formats.computeIfPresent(uuid, (key, current) -> current.withPrefix(prefix));
+        });
+  }
+}
@@ -1,17 +1,19 @@
 package org.joshi234.playlegendgroupsystem;
 
+import io.papermc.paper.chat.ChatRenderer;
+import io.papermc.paper.event.player.AsyncChatEvent;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.AsyncPlayerChatEvent;
-import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
 
 public class ChatListener implements Listener {
 
+  private static final ChatRenderer.ViewerUnaware renderer =
+      (source, displayName, message) -> ChatFormats.render(source.getUniqueId(), displayName,
+          message);
+
   @EventHandler
-  private void onPlayerChat(AsyncPlayerChatEvent e) {
-    String message = new StringFormatter().setFormattedMessage(
-            "[" + new JoinGroup().getPrefix(e.getPlayer().getUniqueId().toString()) + "&f] %s: %s")
-        .getMessage();
-    e.setFormat(message);
+  private void onPlayerChat(AsyncChatEvent e) {
+    // The message looks the same for every viewer, so it is only rendered once
+    e.renderer(ChatRenderer.viewerUnaware(renderer));
   }
 }
@@ -0,0 +1,167 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.joshi234.playlegendgroupsystem.database.ChangeListener;
+import org.joshi234.playlegendgroupsystem.database.ChangeType;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+import org.joshi234.playlegendgroupsystem.database.group.GroupCatalog;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroupRepository;
+import org.joshi234.playlegendgroupsystem.database.group.Language;
+import org.joshi234.playlegendgroupsystem.database.group.Sign;
+
+/**
+ * The ClusterSync class applies the changes made by other servers sharing the database to the
+ * caches of this server. Only the changed entries are dropped, and online players affected by a
+ * change get their tab list name, membership deadlines and language reloaded.
+ */
+public class ClusterSync {
+
+  /**
+   * Starts listening for the changes of other servers.
+   *
+   * @param connectionString the JDBC URL of the database
+   * @param user             the user of the database
+   * @param password         the password of the user
+   */
+  public static void start(String connectionString, String user, String password) {
+    ChangeListener.register(ChangeType.GROUP, groupIds -> groupsChanged());
+    ChangeListener.register(ChangeType.MEMBERSHIP, ClusterSync::membershipsChanged);
+    ChangeListener.register(ChangeType.LANGUAGE, ClusterSync::languagesChanged);
+    ChangeListener.register(ChangeType.SIGN, ClusterSync::signsChanged);
+    ChangeListener.onResync(ClusterSync::resync);
+    ChangeListener.start(connectionString, user, password);
+  }
+
+  /**
+   * Stops listening for the changes of other servers.
+   */
+  public static void stop() {
+    ChangeListener.shutdown();
+  }
+
+  private static void groupsChanged() {
+    JoinGroup.invalidateAllPrefixes();
+    DatabaseExecutor.run(GroupCatalog::reload)
+        .thenRunAsync(() -> {
+          PrefixComponents.invalidateAll();
+          ChatFormats.invalidateAll();
+          refreshPlayers(onlineUuids());
+        }, DatabaseExecutor.mainThread())
+        .exceptionally(DatabaseExecutor::logFailure);
+  }
+
+  private static void membershipsChanged(List<String> uuids) {
+    for (String uuid : uuids) {
+      JoinGroup.invalidatePrefix(uuid);
+    }
+    DatabaseExecutor.mainThread().execute(() -> {
+      List<String> online = new ArrayList<>();
+      for (String uuid : uuids) {
+        if (Bukkit.getPlayer(UUID.fromString(uuid)) != null) {
+          online.add(uuid);
+        }
+      }
+      refreshPlayers(online);
+    });
+  }
+
+  private static void languagesChanged(List<String> uuids) {
+    for (String uuid : uuids) {
+      Language.evictLanguage(uuid);
+    }
+    DatabaseExecutor.mainThread().execute(() -> {
+      for (String uuid : uuids) {
+        if (Bukkit.getPlayer(UUID.fromString(uuid)) != null) {
+          warmLanguage(uuid);
+        }
+      }
+    });
+  }
+
+  private static void signsChanged(List<String> keys) {
+    DatabaseExecutor.mainThread().execute(() -> {
+      for (String key : keys) {
+        // The key is "<+|-><signid>,<x>,<y>,<z>,<world>"
+        String[] parts = key.substring(1).split(",", 5);
+        World world = Bukkit.getWorld(parts[4]);
+        if (world == null) {
+          continue;
+        }
+
+        Location location = new Location(world, Integer.parseInt(parts[1]),
+            Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+        if (key.charAt(0) == '+') {
+          Sign.trackSign(location, Integer.parseInt(parts[0]));
+          SignHandler.signAdded(location);
+        } else {
+          Sign.untrackSign(location);
+          SignHandler.signRemoved(location);
+        }
+      }
+    });
+  }
+
+  /**
+   * Reloads every cached value after notifications may have been missed.
+   */
+  private static void resync() {
+    groupsChanged();
+    DatabaseExecutor.mainThread().execute(() -> {
+      for (String uuid : onlineUuids()) {
+        Language.evictLanguage(uuid);
+        warmLanguage(uuid);
+      }
+      SignHandler.reloadSigns();
+    });
+  }
+
+  /**
+   * Reloads the prefixes and membership deadlines of online players and updates their tab list
+   * names. Must be called on the server thread.
+   *
+   * @param uuids the UUIDs of the online players
+   */
+  private static void refreshPlayers(Collection<String> uuids) {
+    if (uuids.isEmpty()) {
+      return;
+    }
+
+    JoinGroupRepository.reloadPrefixesAsync(uuids)
+        .thenAcceptAsync(prefixes -> {
+          for (Map.Entry<String, String> entry : prefixes.entrySet()) {
+            Player player = Bukkit.getPlayer(UUID.fromString(entry.getKey()));
+            if (player != null) {
+              PlayerInformation.updatePlayerListName(player, entry.getValue());
+            }
+          }
+        }, DatabaseExecutor.mainThread())
+        .exceptionally(DatabaseExecutor::logFailure);
+
+    JoinGroupRepository.getExpiringJoinGroupsAsync(uuids)
+        .thenAcceptAsync(joinGroups -> MembershipExpiryHandler.playersReloaded(uuids, joinGroups),
+            DatabaseExecutor.mainThread())
+        .exceptionally(DatabaseExecutor::logFailure);
+  }
+
+  private static void warmLanguage(String uuid) {
+    DatabaseExecutor.run(() -> new Language().loadLanguageByPlayer(uuid))
+        .exceptionally(DatabaseExecutor::logFailure);
+  }
+
+  private static List<String> onlineUuids() {
+    List<String> uuids = new ArrayList<>();
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      uuids.add(player.getUniqueId().toString());
+    }
+    return uuids;
+  }
+}
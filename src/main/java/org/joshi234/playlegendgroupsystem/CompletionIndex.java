@@ -0,0 +1,203 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The CompletionIndex class is an immutable, case-insensitive index of names for tab completion.
+ * Names are kept in a sorted array, so the names starting with a prefix are found by binary search.
+ * Changes return a new index, so an index can be shared between threads without locking.
+ */
+public final class CompletionIndex {
+
+  /**
+   * The maximum number of completions offered for a single argument.
+   */
+  public static final int DEFAULT_LIMIT = 50;
+
+  /**
+   * An index without any names.
+   */
+  public static final CompletionIndex EMPTY = new CompletionIndex(new String[0], new String[0]);
+
+  private final String[] keys;
+  private final String[] names;
+
+  private CompletionIndex(String[] keys, String[] names) {
+    this.keys = keys;
+    this.names = names;
+  }
+
+  /**
+   * Creates an index of the specified names. Of names that only differ in case, the first one is
+   * kept.
+   *
+   * @param names the names to index
+   * @return the index of the names
+   */
+  public static CompletionIndex of(Collection<String> names) {
+    String[] sorted = new String[names.size()];
+    int count = 0;
+    for (String name : names) {
+      if (name != null) {
+        sorted[count++] = name;
+      }
+    }
+    Arrays.sort(sorted, 0, count, (a, b) -> normalize(a).compareTo(normalize(b)));
+
+    String[] keys = new String[count];
+    String[] uniqueNames = new String[count];
+    int size = 0;
+    for (int i = 0; i < count; i++) {
+      String key = normalize(sorted[i]);
+      if (size == 0 || !keys[size - 1].equals(key)) {
+        keys[size] = key;
+        uniqueNames[size] = sorted[i];
+        size++;
+      }
+    }
+
+    return size == 0 ? EMPTY
+        : new CompletionIndex(Arrays.copyOf(keys, size), Arrays.copyOf(uniqueNames, size));
+  }
+
+  /**
+   * Creates a copy of this index with an additional name. A name that only differs in case is
+   * replaced.
+   *
+   * @param name the name to add
+   * @return the new index
+   */
+  public CompletionIndex with(String name) {
+    String key = normalize(name);
+    int position = Arrays.binarySearch(keys, key);
+    if (position >= 0) {
+      if (names[position].equals(name)) {
+        return this;
+      }
+      String[] newNames = names.clone();
+      newNames[position] = name;
+      return new CompletionIndex(keys, newNames);
+    }
+
+    int insertion = -(position + 1);
+    String[] newKeys = new String[keys.length + 1];
+    String[] newNames = new String[names.length + 1];
+    System.arraycopy(keys, 0, newKeys, 0, insertion);
+    System.arraycopy(names, 0, newNames, 0, insertion);
+    newKeys[insertion] = key;
+    newNames[insertion] = name;
+    System.arraycopy(keys, insertion, newKeys, insertion + 1, keys.length - insertion);
+    System.arraycopy(names, insertion, newNames, insertion + 1, names.length - insertion);
+    return new CompletionIndex(newKeys, newNames);
+  }
+
+  /**
+   * Creates a copy of this index with additional names. Names already in the index are kept over
+   * names that only differ in case.
+   *
+   * @param additionalNames the names to add
+   * @return the new index
+   */
+  public CompletionIndex withAll(Collection<String> additionalNames) {
+    List<String> allNames = new ArrayList<>(names.length + additionalNames.size());
+    allNames.addAll(Arrays.asList(names));
+    allNames.addAll(additionalNames);
+    return of(allNames);
+  }
+
+  /**
+   * Creates a copy of this index without a name, ignoring case.
+   *
+   * @param name the name to remove
+   * @return the new index
+   */
+  public CompletionIndex without(String name) {
+    int position = Arrays.binarySearch(keys, normalize(name));
+    if (position < 0) {
+      return this;
+    }
+
+    String[] newKeys = new String[keys.length - 1];
+    String[] newNames = new String[names.length - 1];
+    System.arraycopy(keys, 0, newKeys, 0, position);
+    System.arraycopy(names, 0, newNames, 0, position);
+    System.arraycopy(keys, position + 1, newKeys, position, keys.length - position - 1);
+    System.arraycopy(names, position + 1, newNames, position, names.length - position - 1);
+    return new CompletionIndex(newKeys, newNames);
+  }
+
+  /**
+   * Checks if a name is in the index, ignoring case.
+   *
+   * @param name the name to check
+   * @return true if the name is in the index, false otherwise
+   */
+  public boolean contains(String name) {
+    return Arrays.binarySearch(keys, normalize(name)) >= 0;
+  }
+
+  /**
+   * Retrieves the number of names in the index.
+   *
+   * @return the number of names
+   */
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * Retrieves the names starting with a prefix, ignoring case, in alphabetical order.
+   *
+   * @param prefix the prefix the names start with
+   * @param limit  the maximum number of names returned
+   * @return the matching names
+   */
+  public List<String> complete(String prefix, int limit) {
+    List<String> result = new ArrayList<>();
+    completeInto(prefix, limit, result);
+    return result;
+  }
+
+  /**
+   * Adds the names starting with a prefix, ignoring case, to a list until it holds the maximum
+   * number of names. Names already in the list are skipped.
+   *
+   * @param prefix the prefix the names start with
+   * @param limit  the maximum number of names in the list
+   * @param result the list the names are added to
+   */
+  public void completeInto(String prefix, int limit, List<String> result) {
+    String key = normalize(prefix);
+    int position = Arrays.binarySearch(keys, key);
+    if (position < 0) {
+      position = -(position + 1);
+    }
+
+    int initialSize = result.size();
+    for (int i = position; i < keys.length && result.size() < limit; i++) {
+      if (!keys[i].startsWith(key)) {
+        break;
+      }
+      if (initialSize == 0 || !containsIgnoreCase(result, initialSize, names[i])) {
+        result.add(names[i]);
+      }
+    }
+  }
+
+  private static boolean containsIgnoreCase(List<String> names, int count, String name) {
+    for (int i = 0; i < count; i++) {
+      if (names.get(i).equalsIgnoreCase(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String normalize(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+}
@@ -4,6 +4,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -17,6 +19,8 @@ public abstract class Configuration {
 
   private static FileConfiguration config;
   private static HashMap<String, FileConfiguration> languageFiles;
+  private static HashMap<String, Map<String, MessageTemplate>> languageTemplates;
+  private static final Map<String, MessageTemplate> configTemplates = new ConcurrentHashMap<>();
 
 
   /**
@@ -26,16 +30,18 @@ public abstract class Configuration {
    */
   public static void setConfig(FileConfiguration fileConfig) {
     config = fileConfig;
+    configTemplates.clear();
   }
 
 
   /**
-   * Loads the language files into memory.
+   * Loads the language files into memory and compiles every message in them.
    *
    * @param dataFolder The data folder of the plugin.
    */
   public static void loadLanguageFiles(File dataFolder) {
     languageFiles = new HashMap<>();
+    HashMap<String, Map<String, MessageTemplate>> templates = new HashMap<>();
 
     List<Language> languages = new Language().getAvailableLanguages();
 
@@ -58,7 +64,58 @@ public abstract class Configuration {
       }
 
       languageFiles.put(lang.getCode(), customConfig);
+      templates.put(lang.getCode(), compileMessages(customConfig));
     }
+
+    languageTemplates = templates;
+  }
+
+  /**
+   * Compiles every string and string list of a configuration into message templates.
+   *
+   * @param configuration The configuration to compile.
+   * @return The templates by key.
+   */
+  private static Map<String, MessageTemplate> compileMessages(FileConfiguration configuration) {
+    Map<String, MessageTemplate> templates = new HashMap<>();
+    for (String key : configuration.getKeys(true)) {
+      if (configuration.isString(key) || configuration.isList(key)) {
+        templates.put(key, compileMessage(configuration, key));
+      }
+    }
+    return templates;
+  }
+
+  private static MessageTemplate compileMessage(FileConfiguration configuration, String key) {
+    if (configuration.isList(key)) {
+      return MessageTemplate.compile(String.join("\n", configuration.getStringList(key)));
+    }
+
+    String message = configuration.getString(key);
+    return MessageTemplate.compile(message != null ? message : key);
+  }
+
+  /**
+   * Retrieves the compiled message of the language file based on the player's UUID and key.
+   *
+   * @param uuid The UUID of the player.
+   * @param key  The key of the message, which may be a string or a string list.
+   * @return The compiled message.
+   */
+  public static MessageTemplate getLocalizedTemplate(String uuid, String key) {
+    MessageTemplate template = languageTemplates.get(getLanguageCode(uuid)).get(key);
+    return template != null ? template : MessageTemplate.compile(key);
+  }
+
+  /**
+   * Retrieves the compiled message of the main plugin configuration. Messages are compiled the
+   * first time they are requested.
+   *
+   * @param key The key of the message, which may be a string or a string list.
+   * @return The compiled message.
+   */
+  public static MessageTemplate getTemplate(String key) {
+    return configTemplates.computeIfAbsent(key, k -> compileMessage(config, k));
   }
 
   /**
@@ -105,7 +162,15 @@ public abstract class Configuration {
   }
 
   private static FileConfiguration getLocalizedConfig(String uuid) {
-    return languageFiles.get(new Language().loadLanguageByPlayer(uuid));
+    return languageFiles.get(getLanguageCode(uuid));
+  }
+
+  private static String getLanguageCode(String uuid) {
+    String code = new Language().loadLanguageByPlayer(uuid);
+    if (code == null || !languageFiles.containsKey(code)) {
+      return config.getString("default-language", "en");
+    }
+    return code;
   }
 
   /**
@@ -118,6 +183,50 @@ public abstract class Configuration {
     return config.getString(key);
   }
 
+  /**
+   * Retrieves a string value from the main plugin configuration.
+   *
+   * @param key          The key to retrieve the string.
+   * @param defaultValue The value used if the key is not set.
+   * @return The string value.
+   */
+  public static String getString(String key, String defaultValue) {
+    return config.getString(key, defaultValue);
+  }
+
+  /**
+   * Retrieves an integer value from the main plugin configuration.
+   *
+   * @param key          The key to retrieve the integer.
+   * @param defaultValue The value used if the key is not set.
+   * @return The integer value.
+   */
+  public static int getInt(String key, int defaultValue) {
+    return config.getInt(key, defaultValue);
+  }
+
+  /**
+   * Retrieves a long value from the main plugin configuration.
+   *
+   * @param key          The key to retrieve the long.
+   * @param defaultValue The value used if the key is not set.
+   * @return The long value.
+   */
+  public static long getLong(String key, long defaultValue) {
+    return config.getLong(key, defaultValue);
+  }
+
+  /**
+   * Retrieves a boolean value from the main plugin configuration.
+   *
+   * @param key          The key to retrieve the boolean.
+   * @param defaultValue The value used if the key is not set.
+   * @return The boolean value.
+   */
+  public static boolean getBoolean(String key, boolean defaultValue) {
+    return config.getBoolean(key, defaultValue);
+  }
+
   /**
    * Retrieves a string list value from the main plugin configuration.
    *
@@ -1,25 +1,43 @@
 package org.joshi234.playlegendgroupsystem;
 
+import java.io.File;
 import java.sql.SQLException;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.joshi234.playlegendgroupsystem.commands.GroupCommand;
 import org.joshi234.playlegendgroupsystem.commands.LanguageCommand;
 import org.joshi234.playlegendgroupsystem.commands.tabcompleter.GroupTabCompleter;
 import org.joshi234.playlegendgroupsystem.commands.tabcompleter.LanguageCommandTabCompleter;
+import org.joshi234.playlegendgroupsystem.database.ChangeNotifier;
+import org.joshi234.playlegendgroupsystem.database.ConnectionPoolSettings;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
 import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.QueryGuard;
+import org.joshi234.playlegendgroupsystem.database.group.GroupCatalog;
 import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
-import org.joshi234.playlegendgroupsystem.database.group.Player;
+import org.joshi234.playlegendgroupsystem.database.group.Language;
+import org.joshi234.playlegendgroupsystem.database.group.PlayerLogin;
+import org.joshi234.playlegendgroupsystem.database.group.PlayerRepository;
+import org.joshi234.playlegendgroupsystem.database.group.PlayerWriteBuffer;
+import org.joshi234.playlegendgroupsystem.metrics.LatencyHistogram;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
+import org.joshi234.playlegendgroupsystem.metrics.PrometheusExporter;
 
 /**
  * The GroupSystem class is the main plugin class for the Legend Group System plugin.
  */
 public class GroupSystem extends JavaPlugin implements Listener {
 
+  private static final LatencyHistogram JOIN_TIMER = Metrics.mainThreadTimer("player.join");
+
   private static GroupSystem instance;
 
   /**
@@ -39,19 +57,86 @@ public class GroupSystem extends JavaPlugin implements Listener {
     registerCommands();
     startConfig();
     Configuration.setConfig(this.getConfig());
+    DatabaseExecutor.start(Configuration.getInt("database.executor.threads", 4),
+        Configuration.getInt("database.executor.queue-size", 1000));
+    QueryGuard.setLogger(getLogger());
+    QueryGuard.setSlowQueryThreshold(
+        Configuration.getLong("database.guard.slow-query-threshold", 100));
     try {
       DatabaseManager.connect(Configuration.getString("database.user"),
           Configuration.getString("database.password"), "group",
-          (Configuration.getString("database.connection-string")));
+          (Configuration.getString("database.connection-string")), loadPoolSettings());
+
+      long start = System.nanoTime();
+      int migrations = DatabaseManager.migrate();
+      if (migrations > 0) {
+        getLogger().info("Applied " + migrations + " schema migrations in "
+            + (System.nanoTime() - start) / 1_000_000 + " ms");
+      }
     } catch (SQLException e) {
       throw new RuntimeException(e);
     }
 
+    PlayerWriteBuffer.start(Configuration.getLong("database.write-behind.flush-interval", 5000),
+        Configuration.getInt("database.write-behind.batch-size", 100));
+    ChangeNotifier.setEnabled(Configuration.getBoolean("cluster.notifications", true));
+    if (Configuration.getBoolean("cluster.notifications", true)) {
+      ClusterSync.start(Configuration.getString("database.connection-string"),
+          Configuration.getString("database.user"), Configuration.getString("database.password"));
+    }
+    JoinGroup.setPrefixCacheSize(Configuration.getLong("cache.prefix.maximum-size", 10000));
+    PlayerSessions.setExpireAfter(Configuration.getLong("session.expire-after", 60));
+    GroupCatalog.reload();
+    PlayerRepository.getPlayerNamesAsync()
+        .thenAccept(PlayerInformation::addKnownNames)
+        .exceptionally(DatabaseExecutor::logFailure);
+
     Configuration.loadLanguageFiles(this.getDataFolder());
 
     getServer().getPluginManager().registerEvents(new ChatListener(), this);
+    getServer().getPluginManager().registerEvents(new SignViewListener(), this);
 
     SignHandler.loadSigns();
+    MembershipExpiryHandler.start(Configuration.getLong("expiry.sweep-interval", 300));
+    if (Configuration.getBoolean("metrics.enabled", true)) {
+      PrometheusExporter.start(
+          new File(getDataFolder(), Configuration.getString("metrics.file", "metrics.prom")),
+          Configuration.getLong("metrics.write-interval", 15));
+    }
+
+    // Startup blocks nothing but the startup, queries on the server thread are reported from now on
+    QueryGuard.setServerThread(Thread.currentThread());
+  }
+
+  @Override
+  public void onDisable() {
+    QueryGuard.setServerThread(null);
+    PrometheusExporter.stop();
+    ClusterSync.stop();
+    DatabaseExecutor.shutdown();
+    PlayerWriteBuffer.shutdown();
+    DatabaseManager.disconnect();
+  }
+
+  private ConnectionPoolSettings loadPoolSettings() {
+    ConnectionPoolSettings settings = new ConnectionPoolSettings();
+    settings.setMinimumIdle(
+        Configuration.getInt("database.pool.minimum-idle", settings.getMinimumIdle()));
+    settings.setMaximumPoolSize(
+        Configuration.getInt("database.pool.maximum-size", settings.getMaximumPoolSize()));
+    settings.setConnectionTimeout(Configuration.getLong("database.pool.connection-timeout",
+        settings.getConnectionTimeout()));
+    settings.setValidationTimeout(Configuration.getLong("database.pool.validation-timeout",
+        settings.getValidationTimeout()));
+    settings.setLeakDetectionThreshold(Configuration.getLong(
+        "database.pool.leak-detection-threshold", settings.getLeakDetectionThreshold()));
+    settings.setMaxLifetime(
+        Configuration.getLong("database.pool.max-lifetime", settings.getMaxLifetime()));
+    settings.setPrepareThreshold(Configuration.getInt("database.pool.prepare-threshold",
+        settings.getPrepareThreshold()));
+    settings.setStatementCacheSize(Configuration.getInt("database.pool.statement-cache-size",
+        settings.getStatementCacheSize()));
+    return settings;
   }
 
   private void startConfig() {
@@ -67,6 +152,31 @@ public class GroupSystem extends JavaPlugin implements Listener {
     this.getCommand("language").setExecutor(new LanguageCommand(langCompleter));
   }
 
+  /**
+   * Handles the AsyncPlayerPreLoginEvent. The login data of allowed players is loaded here, so the
+   * join does not wait for the database.
+   *
+   * @param event The AsyncPlayerPreLoginEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+    if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+      PlayerSessions.prefetch(event.getUniqueId(), event.getName());
+    }
+  }
+
+  /**
+   * Handles the PlayerLoginEvent. The prefetched login data is dropped if the login is denied.
+   *
+   * @param event The PlayerLoginEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerLogin(PlayerLoginEvent event) {
+    if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+      PlayerSessions.drop(event.getPlayer().getUniqueId());
+    }
+  }
+
   /**
    * Handles the PlayerJoinEvent.
    *
@@ -76,17 +186,53 @@ public class GroupSystem extends JavaPlugin implements Listener {
   public void onPlayerJoin(PlayerJoinEvent event) {
     event.joinMessage(null);
 
-    String prefix = new JoinGroup().getPrefix(event.getPlayer().getUniqueId().toString(), true);
-    Player player = new Player(event.getPlayer().getUniqueId().toString(),
-        event.getPlayer().getName());
+    Player player = event.getPlayer();
+    String uuid = player.getUniqueId().toString();
+
+    PlayerInformation.playerJoined(player.getName());
 
-    event.getPlayer().playerListName(
-        LegacyComponentSerializer.legacySection().toBuilder().character('&').build()
-            .deserialize("[" + prefix + "&f]" + player.getName()));
+    PlayerLogin login = PlayerSessions.take(player.getUniqueId());
+    if (login != null) {
+      playerLoggedIn(player, login);
+      return;
+    }
 
-    event.getPlayer().sendMessage(
+    // The login data could not be prefetched, so it is loaded in a single round trip now
+    PlayerRepository.loginAsync(uuid, player.getName(), Configuration.getString("default-group"))
+        .thenAcceptAsync(loaded -> {
+          if (!player.isOnline()) {
+            Language.evictLanguage(uuid);
+            return;
+          }
+          playerLoggedIn(player, loaded);
+        }, DatabaseExecutor.mainThread())
+        .exceptionally(DatabaseExecutor::logFailure);
+  }
+
+  private void playerLoggedIn(Player player, PlayerLogin login) {
+    long start = System.nanoTime();
+    MembershipExpiryHandler.playerJoined(login.getExpiringJoinGroups());
+    PlayerInformation.updatePlayerListName(player, login.getPrefix());
+
+    player.sendMessage(
         new StringFormatter().getLocalizedFormattedString("miscellaneous.player-join",
-                player.getUuid()).replaceKey("prefix", prefix).
-            replaceKey("playername", event.getPlayer().getName()).formatMessage().getMessage());
+                login.getUuid()).replaceKey("prefix", login.getPrefix()).
+            replaceKey("playername", player.getName()).formatMessage().getMessage());
+    JOIN_TIMER.recordSince(start);
+  }
+
+  /**
+   * Handles the PlayerQuitEvent.
+   *
+   * @param event The PlayerQuitEvent.
+   */
+  @EventHandler
+  public void onPlayerQuit(PlayerQuitEvent event) {
+    PlayerSessions.drop(event.getPlayer().getUniqueId());
+    MembershipExpiryHandler.playerQuit(event.getPlayer().getUniqueId().toString());
+    SignHandler.playerQuit(event.getPlayer().getUniqueId());
+    PlayerInformation.playerQuit(event.getPlayer().getName());
+    ChatFormats.playerQuit(event.getPlayer().getUniqueId());
+    Language.evictLanguage(event.getPlayer().getUniqueId().toString());
   }
 }
@@ -0,0 +1,144 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroupRepository;
+import org.joshi234.playlegendgroupsystem.metrics.LatencyHistogram;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
+
+/**
+ * The MembershipExpiryHandler class removes temporary group memberships when they run out. Online
+ * players are tracked in a queue ordered by their join until timestamp, so only the earliest
+ * deadline is checked every second. Memberships of offline players are removed by a periodic
+ * sweep over the whole table.
+ */
+public class MembershipExpiryHandler {
+
+  private static final PriorityQueue<JoinGroup> deadlines = new PriorityQueue<>(
+      Comparator.comparing(JoinGroup::getJoinUntil));
+
+  private static final LatencyHistogram DEADLINES_TIMER =
+      Metrics.mainThreadTimer("expiry.deadlines");
+  private static final LatencyHistogram REFRESH_TIMER = Metrics.mainThreadTimer("expiry.refresh");
+
+  /**
+   * Starts the deadline check and the periodic sweep. Must be called on the server thread.
+   *
+   * @param sweepIntervalSeconds the interval between two sweeps over the whole table
+   */
+  public static void start(long sweepIntervalSeconds) {
+    Bukkit.getScheduler()
+        .runTaskTimer(GroupSystem.getInstance(), MembershipExpiryHandler::expireDueDeadlines, 20,
+            20);
+
+    long sweepIntervalTicks = sweepIntervalSeconds * 20;
+    Bukkit.getScheduler()
+        .runTaskTimer(GroupSystem.getInstance(), MembershipExpiryHandler::expireAll,
+            sweepIntervalTicks, sweepIntervalTicks);
+  }
+
+  /**
+   * Tracks the deadline of a temporary membership. Must be called on the server thread.
+   *
+   * @param joinGroup the membership, which must have a join until timestamp
+   */
+  public static void schedule(JoinGroup joinGroup) {
+    deadlines.add(joinGroup);
+  }
+
+  /**
+   * Tracks the temporary memberships of a player who joined the server. Must be called on the
+   * server thread.
+   *
+   * @param joinGroups the player's memberships that have a join until timestamp
+   */
+  public static void playerJoined(Collection<JoinGroup> joinGroups) {
+    deadlines.addAll(joinGroups);
+  }
+
+  /**
+   * Stops tracking the memberships of a player who left the server. Must be called on the server
+   * thread.
+   *
+   * @param uuid the player's UUID
+   */
+  public static void playerQuit(String uuid) {
+    deadlines.removeIf(joinGroup -> joinGroup.getUuid().equals(uuid));
+  }
+
+  /**
+   * Replaces the tracked memberships of several players with their reloaded memberships. Players
+   * who left the server in the meantime are no longer tracked. Must be called on the server thread.
+   *
+   * @param uuids      the UUIDs of the reloaded players
+   * @param joinGroups the reloaded memberships that have a join until timestamp
+   */
+  public static void playersReloaded(Collection<String> uuids, Collection<JoinGroup> joinGroups) {
+    Set<String> reloadedPlayers = new HashSet<>(uuids);
+    deadlines.removeIf(joinGroup -> reloadedPlayers.contains(joinGroup.getUuid()));
+    for (JoinGroup joinGroup : joinGroups) {
+      if (Bukkit.getPlayer(UUID.fromString(joinGroup.getUuid())) != null) {
+        deadlines.add(joinGroup);
+      }
+    }
+  }
+
+  private static void expireDueDeadlines() {
+    long start = System.nanoTime();
+    long now = System.currentTimeMillis();
+    List<String> duePlayers = new ArrayList<>();
+
+    while (!deadlines.isEmpty() && deadlines.peek().getJoinUntil().getTime() <= now) {
+      String uuid = deadlines.poll().getUuid();
+      if (!duePlayers.contains(uuid)) {
+        duePlayers.add(uuid);
+      }
+    }
+
+    if (!duePlayers.isEmpty()) {
+      refresh(JoinGroupRepository.expireAsync(duePlayers));
+    }
+    DEADLINES_TIMER.recordSince(start);
+  }
+
+  private static void expireAll() {
+    List<String> onlinePlayers = new ArrayList<>();
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      onlinePlayers.add(player.getUniqueId().toString());
+    }
+    refresh(JoinGroupRepository.expireAllAsync(onlinePlayers));
+  }
+
+  /**
+   * Refreshes the tab list name of every player whose prefix was reloaded after removing expired
+   * memberships, if the player is still online.
+   *
+   * @param expiry the removal of the expired memberships
+   */
+  private static void refresh(CompletableFuture<Map<String, String>> expiry) {
+    expiry
+        .thenAcceptAsync(prefixes -> {
+          long start = System.nanoTime();
+          for (Map.Entry<String, String> entry : prefixes.entrySet()) {
+            Player player = Bukkit.getPlayer(UUID.fromString(entry.getKey()));
+            if (player != null) {
+              PlayerInformation.updatePlayerListName(player, entry.getValue());
+            }
+          }
+          REFRESH_TIMER.recordSince(start);
+        }, DatabaseExecutor.mainThread())
+        .exceptionally(DatabaseExecutor::logFailure);
+  }
+}
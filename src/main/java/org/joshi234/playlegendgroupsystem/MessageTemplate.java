@@ -0,0 +1,134 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.bukkit.ChatColor;
+
+/**
+ * The MessageTemplate class holds a message that has been split into color translated literal
+ * segments and {@code [key]} placeholders, so it can be rendered in a single pass.
+ */
+public final class MessageTemplate {
+
+  private static final String COLOR_CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+
+  private static final int MAX_REUSED_CAPACITY = 8192;
+
+  private static final ThreadLocal<StringBuilder> builders =
+      ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  private final String[] literals;
+  private final String[] placeholders;
+
+  private MessageTemplate(String[] literals, String[] placeholders) {
+    this.literals = literals;
+    this.placeholders = placeholders;
+  }
+
+  /**
+   * Compiles a message. The {@code &} color codes are translated once, and every {@code [key]}
+   * becomes a placeholder.
+   *
+   * @param message the message to compile
+   * @return the compiled template
+   */
+  public static MessageTemplate compile(String message) {
+    String translated = ChatColor.translateAlternateColorCodes('&', message);
+    List<String> literals = new ArrayList<>();
+    List<String> placeholders = new ArrayList<>();
+
+    int literalStart = 0;
+    int i = 0;
+    while (i < translated.length()) {
+      if (translated.charAt(i) != '[') {
+        i++;
+        continue;
+      }
+
+      int end = i + 1;
+      while (end < translated.length() && isKeyCharacter(translated.charAt(end))) {
+        end++;
+      }
+      if (end > i + 1 && end < translated.length() && translated.charAt(end) == ']') {
+        literals.add(translated.substring(literalStart, i));
+        placeholders.add(translated.substring(i + 1, end));
+        literalStart = end + 1;
+        i = end + 1;
+      } else {
+        i++;
+      }
+    }
+    literals.add(translated.substring(literalStart));
+
+    return new MessageTemplate(literals.toArray(new String[0]),
+        placeholders.toArray(new String[0]));
+  }
+
+  /**
+   * Renders the template. Placeholders without a value are kept as {@code [key]}.
+   *
+   * @param keys            the placeholder keys, without brackets
+   * @param values          the values of the placeholder keys
+   * @param count           the number of keys and values to use
+   * @param translateValues indicates whether {@code &} color codes in the values are translated
+   * @return the rendered message
+   */
+  public String render(String[] keys, String[] values, int count, boolean translateValues) {
+    if (placeholders.length == 0) {
+      return literals[0];
+    }
+
+    StringBuilder builder = builders.get();
+    builder.setLength(0);
+    builder.append(literals[0]);
+
+    for (int slot = 0; slot < placeholders.length; slot++) {
+      String value = findValue(placeholders[slot], keys, values, count);
+      if (value == null) {
+        builder.append('[').append(placeholders[slot]).append(']');
+      } else if (translateValues) {
+        appendTranslated(builder, value);
+      } else {
+        builder.append(value);
+      }
+      builder.append(literals[slot + 1]);
+    }
+
+    String message = builder.toString();
+    if (builder.capacity() > MAX_REUSED_CAPACITY) {
+      builders.remove();
+    }
+    return message;
+  }
+
+  private static String findValue(String placeholder, String[] keys, String[] values,
+      int count) {
+    for (int i = 0; i < count; i++) {
+      if (placeholder.equals(keys[i])) {
+        return values[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Appends a value while translating {@code &} color codes, the same way as
+   * {@link ChatColor#translateAlternateColorCodes(char, String)}.
+   */
+  private static void appendTranslated(StringBuilder builder, String value) {
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c == '&' && i + 1 < length && COLOR_CODES.indexOf(value.charAt(i + 1)) > -1) {
+        builder.append(ChatColor.COLOR_CHAR).append(Character.toLowerCase(value.charAt(++i)));
+      } else {
+        builder.append(c);
+      }
+    }
+  }
+
+  private static boolean isKeyCharacter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+        || c == '-' || c == '_';
+  }
+}
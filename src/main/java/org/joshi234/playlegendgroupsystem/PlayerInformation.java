@@ -1,7 +1,9 @@
 package org.joshi234.playlegendgroupsystem;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
@@ -10,6 +12,11 @@ import org.bukkit.entity.Player;
  */
 public class PlayerInformation {
 
+  private static final AtomicReference<CompletionIndex> onlineNames =
+      new AtomicReference<>(CompletionIndex.EMPTY);
+  private static final AtomicReference<CompletionIndex> knownNames =
+      new AtomicReference<>(CompletionIndex.EMPTY);
+
   /**
    * Retrieves a list of player names of all online players.
    *
@@ -22,4 +29,58 @@ public class PlayerInformation {
     }
     return playerNames;
   }
+
+  /**
+   * Updates the name of a player in the tab list and the chat format with the specified prefix.
+   *
+   * @param player The player whose tab list name is updated.
+   * @param prefix The prefix shown in front of the player's name.
+   */
+  public static void updatePlayerListName(Player player, String prefix) {
+    player.playerListName(PrefixComponents.getPrefixedName(prefix, player.getName()));
+    ChatFormats.prefixChanged(player.getUniqueId(), prefix);
+  }
+
+  /**
+   * Retrieves the names of players starting with a prefix, ignoring case. Online players come
+   * first, followed by players that have been on the server before.
+   *
+   * @param prefix The prefix the names start with.
+   * @param limit  The maximum number of names returned.
+   * @return The matching player names.
+   */
+  public static List<String> completePlayerNames(String prefix, int limit) {
+    List<String> result = new ArrayList<>();
+    onlineNames.get().completeInto(prefix, limit, result);
+    knownNames.get().completeInto(prefix, limit, result);
+    return result;
+  }
+
+  /**
+   * Adds the names of players that have been on the server before to the player name completion.
+   *
+   * @param names The names of the players.
+   */
+  public static void addKnownNames(Collection<String> names) {
+    knownNames.updateAndGet(index -> index.withAll(names));
+  }
+
+  /**
+   * Adds a player who joined the server to the player name completion.
+   *
+   * @param name The name of the player.
+   */
+  public static void playerJoined(String name) {
+    onlineNames.updateAndGet(index -> index.with(name));
+    knownNames.updateAndGet(index -> index.with(name));
+  }
+
+  /**
+   * Removes a player who left the server from the online player name completion.
+   *
+   * @param name The name of the player.
+   */
+  public static void playerQuit(String name) {
+    onlineNames.updateAndGet(index -> index.without(name));
+  }
 }
@@ -0,0 +1,79 @@
+package org.joshi234.playlegendgroupsystem;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.joshi234.playlegendgroupsystem.database.group.Language;
+import org.joshi234.playlegendgroupsystem.database.group.PlayerLogin;
+
+/**
+ * The PlayerSessions class keeps the login data of players between the pre-login and the join. The
+ * data is loaded on the pre-login thread, so the join itself does not wait for the database.
+ * Sessions of players whose login is denied or who never finish joining are dropped.
+ */
+public class PlayerSessions {
+
+  private static final long DEFAULT_EXPIRE_AFTER_SECONDS = 60;
+  private static final Cache<UUID, PlayerLogin> sessions = Caffeine.newBuilder()
+      .expireAfterWrite(DEFAULT_EXPIRE_AFTER_SECONDS, TimeUnit.SECONDS)
+      .<UUID, PlayerLogin>evictionListener((uuid, login, cause) -> {
+        if (uuid != null && cause.wasEvicted()) {
+          Language.evictLanguage(uuid.toString());
+        }
+      })
+      .build();
+
+  /**
+   * Sets how long the login data of a player who does not join is kept.
+   *
+   * @param seconds the time between the pre-login and the join after which a session is dropped
+   */
+  public static void setExpireAfter(long seconds) {
+    sessions.policy().expireAfterWrite()
+        .ifPresent(expiration -> expiration.setExpiresAfter(seconds, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Loads the login data of a player. Must be called on the pre-login thread, as the calling
+   * thread waits for the database. If loading fails, the player is loaded again when joining.
+   *
+   * @param uuid the player's UUID
+   * @param name the player's name
+   */
+  public static void prefetch(UUID uuid, String name) {
+    try {
+      PlayerLogin login = new PlayerLogin();
+      login.login(uuid.toString(), name, Configuration.getString("default-group"));
+      sessions.put(uuid, login);
+    } catch (RuntimeException e) {
+      GroupSystem.getInstance().getLogger()
+          .log(Level.WARNING, "Could not prefetch the login data of " + name, e);
+    }
+  }
+
+  /**
+   * Removes and returns the login data of a player who joined the server.
+   *
+   * @param uuid the player's UUID
+   * @return the login data, or {@code null} if it was not prefetched
+   */
+  public static PlayerLogin take(UUID uuid) {
+    return sessions.asMap().remove(uuid);
+  }
+
+  /**
+   * Drops the login data of a player who did not join the server, together with the cached
+   * language and prefix that were loaded with it.
+   *
+   * @param uuid the player's UUID
+   */
+  public static void drop(UUID uuid) {
+    if (take(uuid) != null) {
+      Language.evictLanguage(uuid.toString());
+      JoinGroup.invalidatePrefix(uuid.toString());
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+/**
+ * The PrefixComponents class caches the deserialized Adventure components of group prefixes, so the
+ * legacy prefix strings are only parsed once per prefix instead of for every tab list update and
+ * sign.
+ */
+public class PrefixComponents {
+
+  private static final LegacyComponentSerializer serializer =
+      LegacyComponentSerializer.legacyAmpersand();
+
+  private static final Map<String, Component> prefixComponents = new ConcurrentHashMap<>();
+
+  /**
+   * Retrieves the serializer shared by the plugin, which reads {@code &} color codes.
+   *
+   * @return the shared legacy serializer
+   */
+  public static LegacyComponentSerializer getSerializer() {
+    return serializer;
+  }
+
+  /**
+   * Retrieves the component of a prefix in brackets, as shown in front of player names.
+   *
+   * @param prefix the prefix with {@code &} color codes
+   * @return the component of the bracketed prefix
+   */
+  public static Component getPrefix(String prefix) {
+    return prefixComponents.computeIfAbsent(prefix,
+        key -> serializer.deserialize("&f[" + key + "&f]"));
+  }
+
+  /**
+   * Retrieves the component of a player name with a prefix in front of it.
+   *
+   * @param prefix the prefix with {@code &} color codes
+   * @param name   the name of the player
+   * @return the component of the prefixed player name
+   */
+  public static Component getPrefixedName(String prefix, String name) {
+    return Component.textOfChildren(getPrefix(prefix),
+        Component.text(" " + name, NamedTextColor.WHITE));
+  }
+
+  /**
+   * Removes every cached component, so they are deserialized again on the next access.
+   */
+  public static void invalidateAll() {
+    prefixComponents.clear();
+  }
+}
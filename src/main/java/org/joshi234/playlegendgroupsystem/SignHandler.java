@@ -1,32 +1,48 @@
 package org.joshi234.playlegendgroupsystem;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
 import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroupRepository;
 import org.joshi234.playlegendgroupsystem.database.group.Sign;
+import org.joshi234.playlegendgroupsystem.database.group.SignRepository;
+import org.joshi234.playlegendgroupsystem.metrics.LatencyHistogram;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
 
 /**
  * The SignHandler class provides methods for handling signs in the group system.
  */
 public class SignHandler {
 
+  private static final double SIGN_RANGE = 128;
+
+  private static final LatencyHistogram UPDATE_TIMER = Metrics.mainThreadTimer("sign.update");
+
+  private static final SignIndex signIndex = new SignIndex();
+
+  private static final SignViewTracker viewTracker = new SignViewTracker();
+
+  // Players whose prefix is being loaded, only accessed on the server thread
+  private static final Set<UUID> loadingPrefixes = new HashSet<>();
+
   /**
-   * Sets the text of a sign based on the player's prefix and name.
+   * Sets the text of a sign based on the specified prefix and the player's name.
    *
    * @param location The location of the sign.
    * @param player   The player associated with the sign.
+   * @param prefix   The prefix of the player.
    */
-  private static void setSignText(Location location, Player player) {
-    String prefix = new JoinGroup().getPrefix(player.getUniqueId().toString());
-
+  private static void setSignText(Location location, Player player, String prefix) {
     List<Component> lines = new ArrayList<>();
-    lines.add(LegacyComponentSerializer.legacySection().toBuilder().character('&').build()
-        .deserialize("&f[" + prefix + "&f]"));
+    lines.add(PrefixComponents.getPrefix(prefix));
     lines.add(Component.text(player.getName()));
     lines.add(Component.text(""));
     lines.add(Component.text(""));
@@ -35,29 +51,170 @@ public class SignHandler {
   }
 
   /**
-   * Loads the signs and periodically updates their text for nearby players.
+   * Loads the signs and periodically updates their text for nearby players. Each player only visits
+   * the signs in the chunks around them, and the text is only sent when a sign comes into range or
+   * the player's prefix changed since it was last sent.
    */
   public static void loadSigns() {
-    Bukkit.getScheduler().runTaskTimer(GroupSystem.getInstance(), () -> {
+    SignRepository.getSignsAsync()
+        .thenAcceptAsync(signs -> {
+          replaceSigns(signs);
+
+          Bukkit.getScheduler().runTaskTimer(GroupSystem.getInstance(), SignHandler::updateSigns,
+              50, 50);
+        }, DatabaseExecutor.mainThread())
+        .exceptionally(DatabaseExecutor::logFailure);
+  }
+
+  /**
+   * Updates the signs in range of every online player whose text changed since the last pass.
+   */
+  private static void updateSigns() {
+    long start = System.nanoTime();
+    try {
       for (Player player : Bukkit.getOnlinePlayers()) {
-        for (Location signLocation : Sign.getSigns()) {
-          if (player.getLocation().getWorld().equals(signLocation.getWorld())
-              && player.getLocation().distance(signLocation) < 128) {
-            setSignText(signLocation, player);
-          }
+        String prefix = JoinGroup.getCachedPrefix(player.getUniqueId().toString());
+        if (prefix == null) {
+          loadPrefix(player.getUniqueId());
+        } else {
+          updateSigns(player, prefix);
         }
       }
-    }, 50, 50);
+    } finally {
+      UPDATE_TIMER.recordSince(start);
+    }
   }
 
   /**
-   * Sets the text of a newly added sign for all online players.
+   * Updates the signs in range of a player whose text changed since it was last sent.
+   *
+   * @param player The player the signs are shown to.
+   * @param prefix The prefix of the player.
+   */
+  private static void updateSigns(Player player, String prefix) {
+    Location playerLocation = player.getLocation();
+    String world = playerLocation.getWorld().getName();
+    SignViewTracker.Viewer viewer = viewTracker.getViewer(player.getUniqueId(), world);
+
+    viewer.beginPass();
+    signIndex.forEachNear(world, playerLocation.getX(), playerLocation.getY(),
+        playerLocation.getZ(), SIGN_RANGE, signLocation -> {
+          if (viewer.show(signLocation, prefix)) {
+            setSignText(signLocation, player, prefix);
+          }
+        });
+    viewer.endPass();
+  }
+
+  /**
+   * Loads a prefix that is not cached off the server thread and updates the signs in range of the
+   * player once it is loaded. Must be called on the server thread.
+   *
+   * @param uuid The UUID of the player.
+   */
+  private static void loadPrefix(UUID uuid) {
+    if (!loadingPrefixes.add(uuid)) {
+      return;
+    }
+
+    JoinGroupRepository.getPrefixAsync(uuid.toString(), false)
+        .whenCompleteAsync((prefix, error) -> {
+          loadingPrefixes.remove(uuid);
+          if (error != null) {
+            DatabaseExecutor.logFailure(error);
+            return;
+          }
+
+          Player player = Bukkit.getPlayer(uuid);
+          if (player != null) {
+            updateSigns(player, prefix);
+          }
+        }, DatabaseExecutor.mainThread());
+  }
+
+  /**
+   * Reloads every sign from the database and replaces the signs whose text is updated.
+   */
+  public static void reloadSigns() {
+    Sign.invalidateSigns();
+    SignRepository.getSignsAsync()
+        .thenAcceptAsync(SignHandler::replaceSigns, DatabaseExecutor.mainThread())
+        .exceptionally(DatabaseExecutor::logFailure);
+  }
+
+  private static void replaceSigns(List<Location> signs) {
+    signIndex.clear();
+    for (Location signLocation : signs) {
+      signIndex.add(signLocation.getWorld().getName(), signLocation);
+    }
+  }
+
+  /**
+   * Sets the text of a newly added sign for all online players in range. Must be called on the
+   * server thread.
    *
    * @param location The location of the added sign.
    */
   public static void signAdded(Location location) {
+    String world = location.getWorld().getName();
+    signIndex.add(world, location);
+
     for (Player player : Bukkit.getOnlinePlayers()) {
-      setSignText(location, player);
+      Location playerLocation = player.getLocation();
+      if (!playerLocation.getWorld().getName().equals(world)
+          || playerLocation.distanceSquared(location) >= SIGN_RANGE * SIGN_RANGE) {
+        continue;
+      }
+
+      String prefix = JoinGroup.getCachedPrefix(player.getUniqueId().toString());
+      if (prefix == null) {
+        // The new sign is shown with the other signs in range once the prefix is loaded
+        loadPrefix(player.getUniqueId());
+      } else if (viewTracker.getViewer(player.getUniqueId(), world).show(location, prefix)) {
+        setSignText(location, player, prefix);
+      }
     }
   }
+
+  /**
+   * Stops updating the text of a removed sign. Must be called on the server thread.
+   *
+   * @param location The location of the removed sign.
+   */
+  public static void signRemoved(Location location) {
+    String world = location.getWorld().getName();
+    signIndex.remove(world, location);
+    viewTracker.forgetSign(world, location);
+  }
+
+  /**
+   * Forgets the signs shown to a player whose client loads the chunks around them again, for
+   * example after a teleport. The signs in range are sent again on the next pass. Must be called on
+   * the server thread.
+   *
+   * @param uuid The UUID of the player.
+   */
+  public static void chunksResent(UUID uuid) {
+    viewTracker.forgetViewer(uuid);
+  }
+
+  /**
+   * Forgets the signs of an unloaded chunk for every player. Must be called on the server thread.
+   *
+   * @param world  The name of the world the chunk is in.
+   * @param chunkX The X coordinate of the chunk.
+   * @param chunkZ The Z coordinate of the chunk.
+   */
+  public static void chunkUnloaded(String world, int chunkX, int chunkZ) {
+    viewTracker.forgetChunk(world, chunkX, chunkZ);
+  }
+
+  /**
+   * Forgets the signs shown to a player who left the server. Must be called on the server thread.
+   *
+   * @param uuid The UUID of the player.
+   */
+  public static void playerQuit(UUID uuid) {
+    viewTracker.forgetViewer(uuid);
+  }
 }
@@ -0,0 +1,126 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.bukkit.Location;
+
+/**
+ * The SignIndex class groups sign locations by world and chunk, so the signs around a position can
+ * be found by looking at the nearby chunks only instead of every sign on the server.
+ */
+public class SignIndex {
+
+  private final Map<String, Map<Long, List<Location>>> signsByWorld = new HashMap<>();
+
+  /**
+   * Adds a sign location to the index.
+   *
+   * @param world    the name of the world the sign is in
+   * @param location the location of the sign
+   */
+  public void add(String world, Location location) {
+    signsByWorld.computeIfAbsent(world, key -> new HashMap<>())
+        .computeIfAbsent(chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4),
+            key -> new ArrayList<>())
+        .add(location);
+  }
+
+  /**
+   * Removes the sign at the block of the specified location from the index.
+   *
+   * @param world    the name of the world the sign is in
+   * @param location the location of the sign
+   */
+  public void remove(String world, Location location) {
+    Map<Long, List<Location>> chunks = signsByWorld.get(world);
+    if (chunks == null) {
+      return;
+    }
+
+    long key = chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    List<Location> signs = chunks.get(key);
+    if (signs == null) {
+      return;
+    }
+
+    signs.removeIf(sign -> sign.getBlockX() == location.getBlockX()
+        && sign.getBlockY() == location.getBlockY()
+        && sign.getBlockZ() == location.getBlockZ());
+    if (signs.isEmpty()) {
+      chunks.remove(key);
+    }
+  }
+
+  /**
+   * Removes every sign from the index.
+   */
+  public void clear() {
+    signsByWorld.clear();
+  }
+
+  /**
+   * Calls the action for every sign closer than the radius to the specified position.
+   *
+   * @param world  the name of the world of the position
+   * @param x      the x coordinate of the position
+   * @param y      the y coordinate of the position
+   * @param z      the z coordinate of the position
+   * @param radius the radius around the position, in blocks
+   * @param action the action called for every sign in range
+   */
+  public void forEachNear(String world, double x, double y, double z, double radius,
+      Consumer<Location> action) {
+    Map<Long, List<Location>> chunks = signsByWorld.get(world);
+    if (chunks == null) {
+      return;
+    }
+
+    double radiusSquared = radius * radius;
+    int minChunkX = (int) Math.floor(x - radius) >> 4;
+    int maxChunkX = (int) Math.floor(x + radius) >> 4;
+    int minChunkZ = (int) Math.floor(z - radius) >> 4;
+    int maxChunkZ = (int) Math.floor(z + radius) >> 4;
+
+    long chunksInRange = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+    if (chunks.size() < chunksInRange) {
+      // Fewer chunks contain signs than are in range, so walking the occupied chunks is cheaper
+      for (Map.Entry<Long, List<Location>> chunk : chunks.entrySet()) {
+        int chunkX = (int) (chunk.getKey() >> 32);
+        int chunkZ = (int) (long) chunk.getKey();
+        if (chunkX >= minChunkX && chunkX <= maxChunkX
+            && chunkZ >= minChunkZ && chunkZ <= maxChunkZ) {
+          acceptInRange(chunk.getValue(), x, y, z, radiusSquared, action);
+        }
+      }
+      return;
+    }
+
+    for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+      for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+        List<Location> signs = chunks.get(chunkKey(chunkX, chunkZ));
+        if (signs != null) {
+          acceptInRange(signs, x, y, z, radiusSquared, action);
+        }
+      }
+    }
+  }
+
+  private static void acceptInRange(List<Location> signs, double x, double y, double z,
+      double radiusSquared, Consumer<Location> action) {
+    for (Location sign : signs) {
+      double dx = sign.getX() - x;
+      double dy = sign.getY() - y;
+      double dz = sign.getZ() - z;
+      if (dx * dx + dy * dy + dz * dz < radiusSquared) {
+        action.accept(sign);
+      }
+    }
+  }
+
+  private static long chunkKey(int chunkX, int chunkZ) {
+    return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+  }
+}
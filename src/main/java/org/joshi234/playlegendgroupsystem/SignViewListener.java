@@ -0,0 +1,47 @@
+package org.joshi234.playlegendgroupsystem;
+
+import com.destroystokyo.paper.event.player.PlayerClientOptionsChangeEvent;
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+/**
+ * The SignViewListener class tells the {@link SignHandler} when a client receives the chunks of
+ * group signs again, which resets the sign text to the text stored in the world.
+ */
+public class SignViewListener implements Listener {
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onPlayerTeleport(PlayerTeleportEvent e) {
+    SignHandler.chunksResent(e.getPlayer().getUniqueId());
+  }
+
+  @EventHandler
+  private void onPlayerChangedWorld(PlayerChangedWorldEvent e) {
+    SignHandler.chunksResent(e.getPlayer().getUniqueId());
+  }
+
+  @EventHandler
+  private void onPlayerRespawn(PlayerRespawnEvent e) {
+    SignHandler.chunksResent(e.getPlayer().getUniqueId());
+  }
+
+  @EventHandler
+  private void onClientOptionsChange(PlayerClientOptionsChangeEvent e) {
+    // A larger view distance sends the chunks at the edge of the view again
+    if (e.hasViewDistanceChanged()) {
+      SignHandler.chunksResent(e.getPlayer().getUniqueId());
+    }
+  }
+
+  @EventHandler
+  private void onChunkUnload(ChunkUnloadEvent e) {
+    Chunk chunk = e.getChunk();
+    SignHandler.chunkUnloaded(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+  }
+}
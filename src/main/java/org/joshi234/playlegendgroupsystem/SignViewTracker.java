@@ -0,0 +1,142 @@
+package org.joshi234.playlegendgroupsystem;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.Location;
+
+/**
+ * The SignViewTracker class remembers which prefix every player was last shown on each group sign,
+ * so sign text is only sent again when a sign comes into range or the shown prefix changes. The
+ * client replaces the sent text whenever it receives a chunk again, so the signs of a chunk are
+ * forgotten when the chunk is unloaded or resent.
+ */
+public class SignViewTracker {
+
+  private final Map<UUID, Viewer> viewers = new HashMap<>();
+
+  /**
+   * Retrieves the state of a player. The state is reset when the player changed worlds since the
+   * last call.
+   *
+   * @param uuid  the player's UUID
+   * @param world the name of the world the player is in
+   * @return the state of the player
+   */
+  public Viewer getViewer(UUID uuid, String world) {
+    Viewer viewer = viewers.get(uuid);
+    if (viewer == null || !viewer.world.equals(world)) {
+      viewer = new Viewer(world);
+      viewers.put(uuid, viewer);
+    }
+    return viewer;
+  }
+
+  /**
+   * Forgets everything that was shown to a player.
+   *
+   * @param uuid the player's UUID
+   */
+  public void forgetViewer(UUID uuid) {
+    viewers.remove(uuid);
+  }
+
+  /**
+   * Forgets a sign for every player, so it is sent again if it is added back.
+   *
+   * @param world    the name of the world the sign is in
+   * @param location the location of the sign
+   */
+  public void forgetSign(String world, Location location) {
+    long key = blockKey(location);
+    for (Viewer viewer : viewers.values()) {
+      if (viewer.world.equals(world)) {
+        viewer.shown.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Forgets the signs in a chunk for every player in its world, so they are sent again once the
+   * chunk is loaded again.
+   *
+   * @param world  the name of the world the chunk is in
+   * @param chunkX the X coordinate of the chunk
+   * @param chunkZ the Z coordinate of the chunk
+   */
+  public void forgetChunk(String world, int chunkX, int chunkZ) {
+    for (Viewer viewer : viewers.values()) {
+      if (viewer.world.equals(world)) {
+        viewer.shown.keySet().removeIf(key -> BlockPositionMap.unpackX(key) >> 4 == chunkX
+            && BlockPositionMap.unpackZ(key) >> 4 == chunkZ);
+      }
+    }
+  }
+
+  private static long blockKey(Location location) {
+    return BlockPositionMap.pack(location.getBlockX(), location.getBlockY(),
+        location.getBlockZ());
+  }
+
+  /**
+   * The Viewer class holds the signs shown to a single player in a single world.
+   */
+  public static class Viewer {
+
+    private final String world;
+    private final Map<Long, ShownSign> shown = new HashMap<>();
+    private long pass;
+
+    private Viewer(String world) {
+      this.world = world;
+    }
+
+    /**
+     * Starts a pass over the signs in range of the player.
+     */
+    public void beginPass() {
+      pass++;
+    }
+
+    /**
+     * Records that a sign is in range of the player with the specified prefix.
+     *
+     * @param location the location of the sign
+     * @param prefix   the prefix the sign should show
+     * @return true if the sign text has to be sent to the player, false otherwise
+     */
+    public boolean show(Location location, String prefix) {
+      ShownSign sign = shown.get(blockKey(location));
+      if (sign == null) {
+        shown.put(blockKey(location), new ShownSign(prefix, pass));
+        return true;
+      }
+
+      sign.pass = pass;
+      if (!sign.prefix.equals(prefix)) {
+        sign.prefix = prefix;
+        return true;
+      }
+      return false;
+    }
+
+    /**
+     * Ends a pass and forgets every sign that was not in range during it, so the sign is sent again
+     * once the player comes back.
+     */
+    public void endPass() {
+      shown.values().removeIf(sign -> sign.pass != pass);
+    }
+  }
+
+  private static class ShownSign {
+
+    private String prefix;
+    private long pass;
+
+    private ShownSign(String prefix, long pass) {
+      this.prefix = prefix;
+      this.pass = pass;
+    }
+  }
+}
@@ -1,17 +1,20 @@
 package org.joshi234.playlegendgroupsystem;
 
+import java.util.Arrays;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
-import org.bukkit.ChatColor;
 
 /**
  * The StringFormatter class provides methods for formatting strings with color codes and
- * placeholders.
+ * placeholders. Messages are looked up as precompiled {@link MessageTemplate}s, and the replaced
+ * placeholder keys are only collected until the message is rendered in a single pass.
  */
 public class StringFormatter {
 
-  private static final LegacyComponentSerializer componentSerializer = LegacyComponentSerializer.legacySection()
-      .toBuilder().character('&').build();
+  private MessageTemplate template;
+  private String[] keys = new String[2];
+  private String[] values = new String[2];
+  private int replacementCount;
+  private boolean translateValues;
   private String message;
   private String languageId;
 
@@ -22,8 +25,7 @@ public class StringFormatter {
    * @return The StringFormatter instance.
    */
   public StringFormatter getFormattedString(String key) {
-    message = ChatColor.translateAlternateColorCodes('&', Configuration.getString(key));
-    return this;
+    return setTemplate(Configuration.getTemplate(key));
   }
 
   /**
@@ -34,8 +36,7 @@ public class StringFormatter {
    * @return The StringFormatter instance.
    */
   public StringFormatter getFormattedStringListAsString(String key) {
-    message = ChatColor.translateAlternateColorCodes('&', Configuration.getStringListAsString(key));
-    return this;
+    return setTemplate(Configuration.getTemplate(key));
   }
 
   /**
@@ -46,9 +47,7 @@ public class StringFormatter {
    * @return The StringFormatter instance.
    */
   public StringFormatter getLocalizedFormattedString(String key, String uuid) {
-    message = ChatColor.translateAlternateColorCodes('&',
-        Configuration.getLocalizedString(uuid, key));
-    return this;
+    return setTemplate(Configuration.getLocalizedTemplate(uuid, key));
   }
 
   /**
@@ -60,9 +59,7 @@ public class StringFormatter {
    * @return The StringFormatter instance.
    */
   public StringFormatter getLocalizedFormattedStringListAsString(String key, String uuid) {
-    message = ChatColor.translateAlternateColorCodes('&',
-        Configuration.getLocalizedStringListAsString(uuid, key));
-    return this;
+    return setTemplate(Configuration.getLocalizedTemplate(uuid, key));
   }
 
   /**
@@ -73,7 +70,14 @@ public class StringFormatter {
    * @return The StringFormatter instance.
    */
   public StringFormatter replaceKey(String key, String value) {
-    message = message.replace("[" + key + "]", value);
+    if (replacementCount == keys.length) {
+      keys = Arrays.copyOf(keys, keys.length * 2);
+      values = Arrays.copyOf(values, values.length * 2);
+    }
+    keys[replacementCount] = key;
+    values[replacementCount] = value;
+    replacementCount++;
+    message = null;
     return this;
   }
 
@@ -83,6 +87,9 @@ public class StringFormatter {
    * @return The formatted message.
    */
   public String getMessage() {
+    if (message == null) {
+      message = template.render(keys, values, replacementCount, translateValues);
+    }
     return message;
   }
 
@@ -93,17 +100,18 @@ public class StringFormatter {
    * @return The StringFormatter instance.
    */
   public StringFormatter setFormattedMessage(String message) {
-    this.message = ChatColor.translateAlternateColorCodes('&', message);
-    return this;
+    return setTemplate(MessageTemplate.compile(message));
   }
 
   /**
-   * Formats the message by translating color codes.
+   * Formats the message by translating color codes. The color codes of the placeholder values are
+   * translated as well.
    *
    * @return The StringFormatter instance.
    */
   public StringFormatter formatMessage() {
-    this.message = ChatColor.translateAlternateColorCodes('&', message);
+    translateValues = true;
+    message = null;
     return this;
   }
 
@@ -113,6 +121,14 @@ public class StringFormatter {
    * @return The message as a Kyori Component.
    */
   public Component getComponent() {
-    return componentSerializer.deserialize(this.message);
+    return PrefixComponents.getSerializer().deserialize(getMessage());
+  }
+
+  private StringFormatter setTemplate(MessageTemplate template) {
+    this.template = template;
+    replacementCount = 0;
+    translateValues = false;
+    message = null;
+    return this;
   }
 }
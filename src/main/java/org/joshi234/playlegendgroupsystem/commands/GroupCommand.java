@@ -8,10 +8,13 @@ import org.joshi234.playlegendgroupsystem.commands.subcommands.CreateSubCommand;
 import org.joshi234.playlegendgroupsystem.commands.subcommands.DeleteSubCommand;
 import org.joshi234.playlegendgroupsystem.commands.subcommands.EditSubCommand;
 import org.joshi234.playlegendgroupsystem.commands.subcommands.HelpSubCommand;
+import org.joshi234.playlegendgroupsystem.commands.subcommands.ReloadSubCommand;
 import org.joshi234.playlegendgroupsystem.commands.subcommands.RemoveSubCommand;
 import org.joshi234.playlegendgroupsystem.commands.subcommands.ShowSubCommand;
 import org.joshi234.playlegendgroupsystem.commands.subcommands.SignSubCommand;
+import org.joshi234.playlegendgroupsystem.commands.subcommands.StatsSubCommand;
 import org.joshi234.playlegendgroupsystem.commands.tabcompleter.GroupTabCompleter;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
 
 public class GroupCommand extends CommandBase {
 
@@ -34,6 +37,8 @@ public class GroupCommand extends CommandBase {
     this.commands.put("delete", new DeleteSubCommand());
     this.commands.put("edit", new EditSubCommand());
     this.commands.put("sign", new SignSubCommand());
+    this.commands.put("reload", new ReloadSubCommand());
+    this.commands.put("stats", new StatsSubCommand());
   }
 
   @Override
@@ -43,11 +48,12 @@ public class GroupCommand extends CommandBase {
     if (sender instanceof Player) {
       if (args.length > 0) {
         String subCommand = args[0].toLowerCase();
-        if (commands.containsKey(subCommand)) {
-          commands.get(subCommand).onCommand((Player) sender, command, args);
-        } else {
-          commands.get("help").onCommand((Player) sender, command, args);
+        if (!commands.containsKey(subCommand)) {
+          subCommand = "help";
         }
+        long start = System.nanoTime();
+        commands.get(subCommand).onCommand((Player) sender, command, args);
+        Metrics.mainThreadTimer("command." + subCommand).recordSince(start);
       }
     }
     return true;
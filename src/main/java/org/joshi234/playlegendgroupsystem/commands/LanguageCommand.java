@@ -1,12 +1,14 @@
 package org.joshi234.playlegendgroupsystem.commands;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.joshi234.playlegendgroupsystem.StringFormatter;
 import org.joshi234.playlegendgroupsystem.commands.tabcompleter.SubCommandTabCompleter;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
 import org.joshi234.playlegendgroupsystem.database.group.Language;
+import org.joshi234.playlegendgroupsystem.database.group.LanguageRepository;
 
 public class LanguageCommand extends CommandBase {
 
@@ -24,16 +26,27 @@ public class LanguageCommand extends CommandBase {
       org.bukkit.command.@NotNull Command command, @NotNull String label, @NotNull String[] args) {
     if (sender instanceof Player) {
       if (args.length == 1) {
-        List<Language> availableLanguages = new Language().getAvailableLanguages();
-        for (Language lang : availableLanguages) {
-          if (lang.getName().equalsIgnoreCase(args[0])) {
-            new Language().setPlayerLanguage(((Player) sender).getUniqueId().toString(),
-                lang.getLanguageId());
-            sender.sendMessage(new StringFormatter().getLocalizedFormattedString("language.success",
-                ((Player) sender).getUniqueId().toString()).getMessage());
-            return true;
-          }
-        }
+        String uuid = ((Player) sender).getUniqueId().toString();
+        LanguageRepository.getAvailableLanguagesAsync()
+            .thenCompose(availableLanguages -> {
+              for (Language lang : availableLanguages) {
+                if (lang.getName().equalsIgnoreCase(args[0])) {
+                  return LanguageRepository.setPlayerLanguageAsync(uuid, lang.getLanguageId())
+                      .thenApply(ignored -> true);
+                }
+              }
+              return CompletableFuture.completedFuture(false);
+            })
+            .thenAcceptAsync(changed -> {
+              if (changed) {
+                sender.sendMessage(new StringFormatter().getLocalizedFormattedString(
+                    "language.success", uuid).getMessage());
+              } else {
+                sender.sendMessage(command.getUsage());
+              }
+            }, DatabaseExecutor.mainThread())
+            .exceptionally(DatabaseExecutor::logFailure);
+        return true;
       }
     } else {
       return false;
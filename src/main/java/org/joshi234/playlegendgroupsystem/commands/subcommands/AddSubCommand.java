@@ -4,15 +4,22 @@ import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.entity.Player;
+import org.joshi234.playlegendgroupsystem.CompletionIndex;
+import org.joshi234.playlegendgroupsystem.MembershipExpiryHandler;
 import org.joshi234.playlegendgroupsystem.PlayerInformation;
 import org.joshi234.playlegendgroupsystem.StringFormatter;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
 import org.joshi234.playlegendgroupsystem.database.group.Group;
+import org.joshi234.playlegendgroupsystem.database.group.GroupCatalog;
+import org.joshi234.playlegendgroupsystem.database.group.GroupRepository;
 import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroupRepository;
 
 /**
  * The AddSubCommand class represents the subcommand for adding a player to a group. It implements
@@ -21,7 +28,8 @@ import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
 public class AddSubCommand implements SubCommand {
 
   /**
-   * Called when the add subcommand is executed.
+   * Called when the add subcommand is executed. The player argument may name several players
+   * separated by commas, or select every online player.
    *
    * @param player  the player who executed the command
    * @param command the executed command
@@ -31,59 +39,78 @@ public class AddSubCommand implements SubCommand {
   public void onCommand(Player player, Command command, String[] args) {
     // Check the length of arguments to determine if it's valid
     if (args.length == 3 || args.length == 7) {
-      org.joshi234.playlegendgroupsystem.database.group.Player dbPlayer = new org.joshi234.playlegendgroupsystem.database.group.Player();
-      try {
-        dbPlayer.loadByName(args[1]);
-      } catch (Exception e) {
-        player.sendMessage(
-            new StringFormatter().getFormattedString("group-commands.add.message-unknown-player")
-                .replaceKey("playername", args[1]).getMessage());
-        return;
-      }
-      Group group = new Group();
-      try {
-        group.loadGroupByName(args[2]);
-      } catch (Exception e) {
-        player.sendMessage(
-            new StringFormatter().getFormattedString("group-commands.add.message-unknown-group")
-                .replaceKey("groupname", args[2]).getMessage());
-        return;
-      }
-      JoinGroup joinGroup = new JoinGroup();
-      joinGroup.setUuid(dbPlayer.getUuid());
-      joinGroup.setGroupId(group.getGroupId());
+      Timestamp joinUntil = null;
       if (args.length == 7) {
         try {
           // Parse the duration values from arguments and add them to the joinUntil timestamp
-          LocalDateTime joinUntil = new Timestamp(System.currentTimeMillis()).toLocalDateTime();
-          joinUntil = joinUntil.plusDays(Integer.parseInt(args[3]));
-          joinUntil = joinUntil.plusHours(Integer.parseInt(args[4]));
-          joinUntil = joinUntil.plusMinutes(Integer.parseInt(args[5]));
-          joinUntil = joinUntil.plusSeconds(Integer.parseInt(args[6]));
-          joinGroup.setJoinUntil(Timestamp.valueOf(joinUntil));
+          LocalDateTime until = new Timestamp(System.currentTimeMillis()).toLocalDateTime();
+          until = until.plusDays(Integer.parseInt(args[3]));
+          until = until.plusHours(Integer.parseInt(args[4]));
+          until = until.plusMinutes(Integer.parseInt(args[5]));
+          until = until.plusSeconds(Integer.parseInt(args[6]));
+          joinUntil = Timestamp.valueOf(until);
         } catch (Exception e) {
           player.sendMessage(new StringFormatter().getLocalizedFormattedString(
                   "group-commands.add.message-wrong-format", player.getUniqueId().toString())
               .getMessage());
+          return;
         }
       }
-      joinGroup.joinGroup();
-      for (Player bukkitPlayer : Bukkit.getOnlinePlayers()) {
+      Timestamp membershipEnd = joinUntil;
+
+      CompletableFuture<Map<String, String>> playersFuture = PlayerSelector.resolve(args[1]);
+      CompletableFuture<Group> groupFuture = GroupRepository.loadByNameAsync(args[2]);
 
-        UUID uuid = bukkitPlayer.getUniqueId();
-        if (Objects.equals(uuid.toString(), dbPlayer.getUuid())) {
+      // Loading the group only fails if no group has this name
+      CompletableFuture<Group> knownGroupFuture = groupFuture.exceptionally(error -> null);
 
-          // Update the player's list name with the new prefix
-          String prefix = new JoinGroup().getPrefix(bukkitPlayer.getUniqueId().toString());
-          bukkitPlayer.playerListName(new StringFormatter().setFormattedMessage(
-              "&f[" + prefix + "&f] " + bukkitPlayer.getName()).getComponent());
+      playersFuture.thenAcceptBothAsync(knownGroupFuture, (players, group) -> {
+        List<String> unknownNames = PlayerSelector.unknownNames(args[1], players);
+        if (!unknownNames.isEmpty()) {
+          player.sendMessage(
+              new StringFormatter().getFormattedString("group-commands.add.message-unknown-player")
+                  .replaceKey("playername", PlayerSelector.describe(unknownNames)).getMessage());
+          return;
         }
-      }
+        if (group == null) {
+          player.sendMessage(
+              new StringFormatter().getFormattedString("group-commands.add.message-unknown-group")
+                  .replaceKey("groupname", args[2]).getMessage());
+          return;
+        }
+        if (players.isEmpty()) {
+          return;
+        }
+        int groupId = group.getGroupId();
 
-      player.sendMessage(
-          new StringFormatter().getLocalizedFormattedString("group-commands.add.message-success",
-                  player.getUniqueId().toString()).replaceKey("playername", args[1])
-              .replaceKey("groupname", args[2]).getMessage());
+        JoinGroupRepository.joinAllAsync(players.values(), groupId, membershipEnd)
+            .thenAcceptAsync(result -> {
+              // Refresh the tab list of every selected player that is online in one pass
+              for (Map.Entry<String, String> entry : result.prefixes().entrySet()) {
+                Player bukkitPlayer = Bukkit.getPlayer(UUID.fromString(entry.getKey()));
+                if (bukkitPlayer == null) {
+                  continue;
+                }
+
+                // Update the player's list name with the new prefix
+                PlayerInformation.updatePlayerListName(bukkitPlayer, entry.getValue());
+                // Players that were in the group before keep their membership and its deadline
+                if (membershipEnd != null && result.joinedPlayers().contains(entry.getKey())) {
+                  JoinGroup joinGroup = new JoinGroup();
+                  joinGroup.setUuid(entry.getKey());
+                  joinGroup.setGroupId(groupId);
+                  joinGroup.setJoinUntil(membershipEnd);
+                  MembershipExpiryHandler.schedule(joinGroup);
+                }
+              }
+
+              player.sendMessage(
+                  new StringFormatter().getLocalizedFormattedString(
+                          "group-commands.add.message-success", player.getUniqueId().toString())
+                      .replaceKey("playername", PlayerSelector.describe(players.keySet()))
+                      .replaceKey("groupname", args[2]).getMessage());
+            }, DatabaseExecutor.mainThread()).exceptionally(DatabaseExecutor::logFailure);
+      }, DatabaseExecutor.mainThread()).exceptionally(DatabaseExecutor::logFailure);
     } else {
       player.sendMessage(
           new StringFormatter().getLocalizedFormattedString("commands-general.missing-argument",
@@ -112,9 +139,9 @@ public class AddSubCommand implements SubCommand {
   @Override
   public List<String> getArguments(String[] args, int level) {
     if (level == 1) {
-      return PlayerInformation.getPlayerNames();
+      return PlayerSelector.complete(args[level]);
     } else if (level == 2) {
-      return new Group().getGroupNames();
+      return GroupCatalog.completeGroupNames(args[level], CompletionIndex.DEFAULT_LIMIT);
     }
     return new ArrayList<>();
   }
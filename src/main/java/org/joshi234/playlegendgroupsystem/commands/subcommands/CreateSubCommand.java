@@ -3,7 +3,9 @@ package org.joshi234.playlegendgroupsystem.commands.subcommands;
 import org.bukkit.command.Command;
 import org.bukkit.entity.Player;
 import org.joshi234.playlegendgroupsystem.StringFormatter;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
 import org.joshi234.playlegendgroupsystem.database.group.Group;
+import org.joshi234.playlegendgroupsystem.database.group.GroupRepository;
 
 /**
  * The CreateSubCommand class represents the subcommand for creating a new group. It implements the
@@ -34,10 +36,19 @@ public class CreateSubCommand implements SubCommand {
         // Create a group with a description
         group = new Group(args[1], args[2], args[4], Integer.parseInt(args[3]));
       }
-      group.createGroup();
-      player.sendMessage(
-          new StringFormatter().getLocalizedFormattedString("group-commands.create.message-success",
-              player.getUniqueId().toString()).replaceKey("groupname", args[1]).getMessage());
+      GroupRepository.createAsync(group).whenCompleteAsync((created, error) -> {
+        if (error != null) {
+          player.sendMessage(
+              new StringFormatter().getLocalizedFormattedString(
+                  "group-commands.create.message-fail-general",
+                  player.getUniqueId().toString()).getMessage());
+          return;
+        }
+        player.sendMessage(
+            new StringFormatter().getLocalizedFormattedString(
+                    "group-commands.create.message-success", player.getUniqueId().toString())
+                .replaceKey("groupname", args[1]).getMessage());
+      }, DatabaseExecutor.mainThread());
     }
   }
 
@@ -4,8 +4,11 @@ import java.util.ArrayList;
 import java.util.List;
 import org.bukkit.command.Command;
 import org.bukkit.entity.Player;
+import org.joshi234.playlegendgroupsystem.CompletionIndex;
 import org.joshi234.playlegendgroupsystem.StringFormatter;
-import org.joshi234.playlegendgroupsystem.database.group.Group;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+import org.joshi234.playlegendgroupsystem.database.group.GroupCatalog;
+import org.joshi234.playlegendgroupsystem.database.group.GroupRepository;
 
 /**
  * The DeleteSubCommand class represents the subcommand for deleting a group. It implements the
@@ -24,36 +27,35 @@ public class DeleteSubCommand implements SubCommand {
   public void onCommand(Player player, Command command, String[] args) {
     // Check the length of arguments to determine if it's valid
     if (args.length == 2) {
-      Group group = new Group();
-      try {
-        group.loadGroupByName(args[1]);
-      } catch (Exception e) {
-        player.sendMessage(
-            new StringFormatter()
-                .getLocalizedFormattedString("group-commands.remove.message-unknown-group",
-                    player.getUniqueId().toString())
-                .replaceKey("groupname", args[2])
-                .getMessage());
-        return;
-      }
-      try {
+      GroupRepository.loadByNameAsync(args[1]).whenCompleteAsync((group, loadError) -> {
+        if (loadError != null) {
+          player.sendMessage(
+              new StringFormatter()
+                  .getLocalizedFormattedString("group-commands.remove.message-unknown-group",
+                      player.getUniqueId().toString())
+                  .replaceKey("groupname", args[1])
+                  .getMessage());
+          return;
+        }
         // Delete the group
-        group.deleteGroup(group.getGroupId());
-
-        player.sendMessage(
-            new StringFormatter()
-                .getLocalizedFormattedString("group-commands.delete.message-success",
-                    player.getUniqueId().toString())
-                .replaceKey("groupname", args[1])
-                .getMessage());
-      } catch (RuntimeException e) {
-        player.sendMessage(
-            new StringFormatter()
-                .getLocalizedFormattedString("group-commands.delete.message-player-in-group",
-                    player.getUniqueId().toString())
-                .replaceKey("groupname", args[1])
-                .getMessage());
-      }
+        GroupRepository.deleteAsync(group.getGroupId()).whenCompleteAsync((ignored, error) -> {
+          if (error != null) {
+            player.sendMessage(
+                new StringFormatter()
+                    .getLocalizedFormattedString("group-commands.delete.message-player-in-group",
+                        player.getUniqueId().toString())
+                    .replaceKey("groupname", args[1])
+                    .getMessage());
+            return;
+          }
+          player.sendMessage(
+              new StringFormatter()
+                  .getLocalizedFormattedString("group-commands.delete.message-success",
+                      player.getUniqueId().toString())
+                  .replaceKey("groupname", args[1])
+                  .getMessage());
+        }, DatabaseExecutor.mainThread());
+      }, DatabaseExecutor.mainThread());
     } else {
       player.sendMessage(
           new StringFormatter()
@@ -83,7 +85,7 @@ public class DeleteSubCommand implements SubCommand {
   @Override
   public List<String> getArguments(String[] args, int level) {
     if (level == 1) {
-      return new Group().getGroupNames();
+      return GroupCatalog.completeGroupNames(args[level], CompletionIndex.DEFAULT_LIMIT);
     }
     return new ArrayList<>();
   }
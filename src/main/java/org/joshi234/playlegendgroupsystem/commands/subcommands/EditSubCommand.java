@@ -4,8 +4,11 @@ import java.util.ArrayList;
 import java.util.List;
 import org.bukkit.command.Command;
 import org.bukkit.entity.Player;
+import org.joshi234.playlegendgroupsystem.CompletionIndex;
 import org.joshi234.playlegendgroupsystem.StringFormatter;
-import org.joshi234.playlegendgroupsystem.database.group.Group;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+import org.joshi234.playlegendgroupsystem.database.group.GroupCatalog;
+import org.joshi234.playlegendgroupsystem.database.group.GroupRepository;
 
 /**
  * The EditSubCommand class represents the subcommand for editing a group. It implements the
@@ -36,17 +39,6 @@ public class EditSubCommand implements SubCommand {
   public void onCommand(Player player, Command command, String[] args) {
     // Check the length of arguments to determine if it's valid
     if (args.length == 4) {
-      Group group = new Group();
-      try {
-        group.loadGroupByName(args[1]);
-      } catch (Exception e) {
-        player.sendMessage(
-            new StringFormatter()
-                .getFormattedString("group-commands.add.message-unknown-group")
-                .replaceKey("groupname", args[2])
-                .getMessage());
-        return;
-      }
       if (!possibleField.contains(args[2].toLowerCase())) {
         player.sendMessage(
             new StringFormatter()
@@ -55,20 +47,33 @@ public class EditSubCommand implements SubCommand {
                 .getMessage());
         return;
       }
-      try {
+      GroupRepository.loadByNameAsync(args[1]).whenCompleteAsync((group, loadError) -> {
+        if (loadError != null) {
+          player.sendMessage(
+              new StringFormatter()
+                  .getFormattedString("group-commands.add.message-unknown-group")
+                  .replaceKey("groupname", args[2])
+                  .getMessage());
+          return;
+        }
         // Update the group with the specified field and value
-        group.updateGroup(args[2].toLowerCase(), args[3], group.getGroupId());
-        player.sendMessage(
-            new StringFormatter().getLocalizedFormattedString("group-commands.edit.message-success",
-                    player.getUniqueId().toString()).replaceKey("playername", args[1])
-                .replaceKey("groupname", args[2]).getMessage());
-      } catch (RuntimeException e) {
-        player.sendMessage(
-            new StringFormatter().getLocalizedFormattedString("group-commands.edit.message-fail",
-                    player.getUniqueId().toString()).replaceKey("playername", args[1])
-                .replaceKey("groupname", args[2]).getMessage());
-
-      }
+        GroupRepository.updateAsync(args[2].toLowerCase(), args[3], group.getGroupId())
+            .whenCompleteAsync((ignored, error) -> {
+              if (error != null) {
+                player.sendMessage(
+                    new StringFormatter().getLocalizedFormattedString(
+                            "group-commands.edit.message-fail", player.getUniqueId().toString())
+                        .replaceKey("playername", args[1])
+                        .replaceKey("groupname", args[2]).getMessage());
+                return;
+              }
+              player.sendMessage(
+                  new StringFormatter().getLocalizedFormattedString(
+                          "group-commands.edit.message-success", player.getUniqueId().toString())
+                      .replaceKey("playername", args[1])
+                      .replaceKey("groupname", args[2]).getMessage());
+            }, DatabaseExecutor.mainThread());
+      }, DatabaseExecutor.mainThread());
     } else {
       player.sendMessage(
           new StringFormatter().getLocalizedFormattedString("commands-general.missing-argument",
@@ -96,7 +101,7 @@ public class EditSubCommand implements SubCommand {
   @Override
   public List<String> getArguments(String[] args, int level) {
     if (level == 1) {
-      return new Group().getGroupNames();
+      return GroupCatalog.completeGroupNames(args[level], CompletionIndex.DEFAULT_LIMIT);
     } else if (level == 2) {
       return possibleField;
     }
@@ -0,0 +1,116 @@
+package org.joshi234.playlegendgroupsystem.commands.subcommands;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.joshi234.playlegendgroupsystem.CompletionIndex;
+import org.joshi234.playlegendgroupsystem.PlayerInformation;
+import org.joshi234.playlegendgroupsystem.database.group.PlayerRepository;
+
+/**
+ * The PlayerSelector class resolves the player argument of commands that work on several players
+ * at once. The argument is either a comma separated list of player names or {@value #ALL_ONLINE}
+ * for every online player.
+ */
+class PlayerSelector {
+
+  static final String ALL_ONLINE = "@a";
+  private static final int DESCRIBED_NAMES = 10;
+
+  /**
+   * Resolves the UUIDs of the selected players. Must be called on the server thread.
+   *
+   * @param argument the player argument
+   * @return a future completed with the UUID of every player that was found, keyed by name
+   */
+  static CompletableFuture<Map<String, String>> resolve(String argument) {
+    if (ALL_ONLINE.equals(argument)) {
+      Map<String, String> uuids = new HashMap<>();
+      for (Player player : Bukkit.getOnlinePlayers()) {
+        uuids.put(player.getName(), player.getUniqueId().toString());
+      }
+      return CompletableFuture.completedFuture(uuids);
+    }
+    return PlayerRepository.loadUuidsByNamesAsync(parseNames(argument));
+  }
+
+  /**
+   * Splits a comma separated list of player names, dropping empty and duplicate names.
+   *
+   * @param argument the player argument
+   * @return the player names in the order they were given
+   */
+  static Set<String> parseNames(String argument) {
+    Set<String> names = new LinkedHashSet<>();
+    for (String name : argument.split(",")) {
+      if (!name.isEmpty()) {
+        names.add(name);
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Retrieves the names of a selection that could not be resolved.
+   *
+   * @param argument the player argument
+   * @param uuids    the resolved players
+   * @return the unknown names
+   */
+  static List<String> unknownNames(String argument, Map<String, String> uuids) {
+    List<String> unknown = new ArrayList<>();
+    if (!ALL_ONLINE.equals(argument)) {
+      for (String name : parseNames(argument)) {
+        if (!uuids.containsKey(name)) {
+          unknown.add(name);
+        }
+      }
+    }
+    return unknown;
+  }
+
+  /**
+   * Completes the last name of a comma separated list of player names.
+   *
+   * @param argument the player argument typed so far
+   * @return the completed arguments
+   */
+  static List<String> complete(String argument) {
+    int separator = argument.lastIndexOf(',');
+    String previous = argument.substring(0, separator + 1);
+    String prefix = argument.substring(separator + 1);
+
+    List<String> result = new ArrayList<>();
+    if (separator < 0 && ALL_ONLINE.startsWith(prefix)) {
+      result.add(ALL_ONLINE);
+    }
+    for (String name : PlayerInformation.completePlayerNames(prefix,
+        CompletionIndex.DEFAULT_LIMIT)) {
+      result.add(previous + name);
+    }
+    return result;
+  }
+
+  /**
+   * Joins the names of a selection for a message. Long selections only show the first names and
+   * the number of the remaining players.
+   *
+   * @param names the names of the players
+   * @return the names separated by commas
+   */
+  static String describe(Collection<String> names) {
+    if (names.size() <= DESCRIBED_NAMES) {
+      return String.join(", ", names);
+    }
+
+    List<String> described = new ArrayList<>(names).subList(0, DESCRIBED_NAMES);
+    return String.join(", ", described) + " +" + (names.size() - DESCRIBED_NAMES);
+  }
+}
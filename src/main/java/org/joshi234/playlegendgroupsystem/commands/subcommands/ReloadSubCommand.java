@@ -0,0 +1,73 @@
+package org.joshi234.playlegendgroupsystem.commands.subcommands;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
+import org.joshi234.playlegendgroupsystem.ChatFormats;
+import org.joshi234.playlegendgroupsystem.PrefixComponents;
+import org.joshi234.playlegendgroupsystem.StringFormatter;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+import org.joshi234.playlegendgroupsystem.database.group.GroupRepository;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+
+/**
+ * The ReloadSubCommand class represents the subcommand for reloading the groups from the database,
+ * after they have been edited outside the plugin. It implements the SubCommand interface and
+ * provides the necessary behavior for the command.
+ */
+public class ReloadSubCommand implements SubCommand {
+
+  /**
+   * Called when the reload subcommand is executed.
+   *
+   * @param player  the player who executed the command
+   * @param command the executed command
+   * @param args    the command arguments
+   */
+  @Override
+  public void onCommand(Player player, Command command, String[] args) {
+    GroupRepository.reloadAsync().whenCompleteAsync((ignored, error) -> {
+      if (error != null) {
+        DatabaseExecutor.logFailure(error);
+        player.sendMessage(
+            new StringFormatter().getLocalizedFormattedString(
+                "group-commands.reload.message-fail", player.getUniqueId().toString())
+                .getMessage());
+        return;
+      }
+
+      // Prefixes may have been edited as well, so they are loaded again on the next access
+      JoinGroup.invalidateAllPrefixes();
+      PrefixComponents.invalidateAll();
+      ChatFormats.invalidateAll();
+
+      player.sendMessage(
+          new StringFormatter().getLocalizedFormattedString(
+              "group-commands.reload.message-success", player.getUniqueId().toString())
+              .getMessage());
+    }, DatabaseExecutor.mainThread());
+  }
+
+  /**
+   * Gets the permission required to execute the reload subcommand.
+   *
+   * @return the permission string
+   */
+  @Override
+  public String getPermission() {
+    return null;
+  }
+
+  /**
+   * Gets the list of arguments for the reload subcommand at the given level.
+   *
+   * @param args  the command arguments
+   * @param level the argument level
+   * @return the list of arguments
+   */
+  @Override
+  public List<String> getArguments(String[] args, int level) {
+    return new ArrayList<>();
+  }
+}
@@ -2,15 +2,20 @@ package org.joshi234.playlegendgroupsystem.commands.subcommands;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.entity.Player;
+import org.joshi234.playlegendgroupsystem.CompletionIndex;
 import org.joshi234.playlegendgroupsystem.PlayerInformation;
 import org.joshi234.playlegendgroupsystem.StringFormatter;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
 import org.joshi234.playlegendgroupsystem.database.group.Group;
-import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.joshi234.playlegendgroupsystem.database.group.GroupCatalog;
+import org.joshi234.playlegendgroupsystem.database.group.GroupRepository;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroupRepository;
 
 /**
  * The RemoveSubCommand class represents the subcommand for removing a player from a group. It
@@ -19,7 +24,8 @@ import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
 public class RemoveSubCommand implements SubCommand {
 
   /**
-   * Called when the remove subcommand is executed.
+   * Called when the remove subcommand is executed. The player argument may name several players
+   * separated by commas, or select every online player.
    *
    * @param player  the player who executed the command
    * @param command the executed command
@@ -28,51 +34,53 @@ public class RemoveSubCommand implements SubCommand {
   @Override
   public void onCommand(Player player, Command command, String[] args) {
     if (args.length == 3) {
-      org.joshi234.playlegendgroupsystem.database.group.Player dbPlayer =
-          new org.joshi234.playlegendgroupsystem.database.group.Player();
-      try {
-        dbPlayer.loadByName(args[1]);
-      } catch (Exception e) {
-        player.sendMessage(
-            new StringFormatter()
-                .getFormattedString("group-commands.remove.message-unknown-player")
-                .replaceKey("playername", args[1])
-                .getMessage());
-        return;
-      }
-      Group group = new Group();
-      try {
-        group.loadGroupByName(args[2]);
-      } catch (Exception e) {
-        player.sendMessage(
-            new StringFormatter()
-                .getFormattedString("group-commands.remove.message-unknown-group")
-                .replaceKey("groupname", args[2])
-                .getMessage());
-        return;
-      }
-      JoinGroup joinGroup = new JoinGroup();
-      joinGroup.deleteJoinGroup(dbPlayer.getUuid(), group.getGroupId());
-      for (Player bukkitPlayer : Bukkit.getOnlinePlayers()) {
+      CompletableFuture<Map<String, String>> playersFuture = PlayerSelector.resolve(args[1]);
+      CompletableFuture<Group> groupFuture = GroupRepository.loadByNameAsync(args[2]);
 
-        UUID uuid = bukkitPlayer.getUniqueId();
-        if (Objects.equals(uuid.toString(), dbPlayer.getUuid())) {
+      // Loading the group only fails if no group has this name
+      CompletableFuture<Group> knownGroupFuture = groupFuture.exceptionally(error -> null);
 
-          String prefix = new JoinGroup().getPrefix(bukkitPlayer.getUniqueId().toString());
-          bukkitPlayer.playerListName(
+      playersFuture.thenAcceptBothAsync(knownGroupFuture, (players, group) -> {
+        List<String> unknownNames = PlayerSelector.unknownNames(args[1], players);
+        if (!unknownNames.isEmpty()) {
+          player.sendMessage(
               new StringFormatter()
-                  .setFormattedMessage("&f[" + prefix + "&f] " + bukkitPlayer.getName())
-                  .getComponent());
+                  .getFormattedString("group-commands.remove.message-unknown-player")
+                  .replaceKey("playername", PlayerSelector.describe(unknownNames))
+                  .getMessage());
+          return;
+        }
+        if (group == null) {
+          player.sendMessage(
+              new StringFormatter()
+                  .getFormattedString("group-commands.remove.message-unknown-group")
+                  .replaceKey("groupname", args[2])
+                  .getMessage());
+          return;
+        }
+        if (players.isEmpty()) {
+          return;
         }
-      }
 
-      player.sendMessage(
-          new StringFormatter()
-              .getLocalizedFormattedString("group-commands.remove.message-success",
-                  player.getUniqueId().toString())
-              .replaceKey("playername", args[1])
-              .replaceKey("groupname", args[2])
-              .getMessage());
+        JoinGroupRepository.leaveAllAsync(players.values(), group.getGroupId())
+            .thenAcceptAsync(prefixes -> {
+              // Refresh the tab list of every selected player that is online in one pass
+              for (Map.Entry<String, String> entry : prefixes.entrySet()) {
+                Player bukkitPlayer = Bukkit.getPlayer(UUID.fromString(entry.getKey()));
+                if (bukkitPlayer != null) {
+                  PlayerInformation.updatePlayerListName(bukkitPlayer, entry.getValue());
+                }
+              }
+
+              player.sendMessage(
+                  new StringFormatter()
+                      .getLocalizedFormattedString("group-commands.remove.message-success",
+                          player.getUniqueId().toString())
+                      .replaceKey("playername", PlayerSelector.describe(players.keySet()))
+                      .replaceKey("groupname", args[2])
+                      .getMessage());
+            }, DatabaseExecutor.mainThread()).exceptionally(DatabaseExecutor::logFailure);
+      }, DatabaseExecutor.mainThread()).exceptionally(DatabaseExecutor::logFailure);
     } else {
       player.sendMessage(
           new StringFormatter()
@@ -102,9 +110,9 @@ public class RemoveSubCommand implements SubCommand {
   @Override
   public List<String> getArguments(String[] args, int level) {
     if (level == 1) {
-      return PlayerInformation.getPlayerNames();
+      return PlayerSelector.complete(args[level]);
     } else if (level == 2) {
-      return new Group().getGroupNames();
+      return GroupCatalog.completeGroupNames(args[level], CompletionIndex.DEFAULT_LIMIT);
     }
     return new ArrayList<>();
   }
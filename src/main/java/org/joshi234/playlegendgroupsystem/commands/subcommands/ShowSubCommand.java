@@ -2,8 +2,9 @@ package org.joshi234.playlegendgroupsystem.commands.subcommands;
 
 import org.bukkit.command.Command;
 import org.joshi234.playlegendgroupsystem.StringFormatter;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
 import org.joshi234.playlegendgroupsystem.database.group.Group;
-import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroupRepository;
 
 /**
  * The ShowSubCommand class represents the subcommand for showing the player's group. It implements
@@ -20,21 +21,24 @@ public class ShowSubCommand implements SubCommand {
    */
   @Override
   public void onCommand(org.bukkit.entity.Player player, Command command, String[] args) {
-    JoinGroup joinGroup = new JoinGroup();
-    var groups = joinGroup.getPlayerGroups(player.getUniqueId().toString());
-    if (groups.size() != 0) {
-      for (Group group : groups) {
-        player.sendMessage(
-            new StringFormatter().getLocalizedFormattedString("group-commands.show.message",
-                    player.getUniqueId().toString()).replaceKey("groupname", group.getName())
-                .replaceKey("description", group.getDescription())
-                .getMessage());
-      }
-    } else {
-      player.sendMessage(
-          new StringFormatter().getLocalizedFormattedString("group-commands.show.message-no-group",
-              player.getUniqueId().toString()).getMessage());
-    }
+    JoinGroupRepository.getPlayerGroupsAsync(player.getUniqueId().toString())
+        .thenAcceptAsync(groups -> {
+          if (groups.size() != 0) {
+            for (Group group : groups) {
+              player.sendMessage(
+                  new StringFormatter().getLocalizedFormattedString("group-commands.show.message",
+                          player.getUniqueId().toString()).replaceKey("groupname", group.getName())
+                      .replaceKey("description", group.getDescription())
+                      .getMessage());
+            }
+          } else {
+            player.sendMessage(
+                new StringFormatter().getLocalizedFormattedString(
+                    "group-commands.show.message-no-group",
+                    player.getUniqueId().toString()).getMessage());
+          }
+        }, DatabaseExecutor.mainThread())
+        .exceptionally(DatabaseExecutor::logFailure);
   }
 
   /**
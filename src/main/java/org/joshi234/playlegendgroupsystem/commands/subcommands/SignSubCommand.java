@@ -10,7 +10,9 @@ import org.bukkit.command.Command;
 import org.joshi234.playlegendgroupsystem.GroupSystem;
 import org.joshi234.playlegendgroupsystem.SignHandler;
 import org.joshi234.playlegendgroupsystem.StringFormatter;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
 import org.joshi234.playlegendgroupsystem.database.group.Sign;
+import org.joshi234.playlegendgroupsystem.database.group.SignRepository;
 
 /**
  * The SignSubCommand class represents the subcommand for managing signs. It implements the
@@ -30,12 +32,11 @@ public class SignSubCommand implements SubCommand {
     if (Objects.equals(args[1], "add")) {
       if (player.getWorld().getBlockAt(player.getLocation()).getType() == Material.OAK_SIGN) {
         Location loc = player.getLocation().clone();
-        Bukkit.getScheduler().runTaskLaterAsynchronously(
+        Bukkit.getScheduler().runTaskLater(
             GroupSystem.getInstance(),
-            () -> {
-              Sign.addSign(loc);
-              SignHandler.signAdded(loc);
-            },
+            () -> SignRepository.addAsync(loc)
+                .thenRunAsync(() -> SignHandler.signAdded(loc), DatabaseExecutor.mainThread())
+                .exceptionally(DatabaseExecutor::logFailure),
             10);
       } else {
         player.sendMessage(
@@ -47,7 +48,9 @@ public class SignSubCommand implements SubCommand {
     } else {
       if (Sign.isSignPresent(player.getLocation())) {
         Location loc = player.getLocation().clone();
-        Sign.removeSign(loc);
+        SignRepository.removeAsync(loc)
+            .thenRunAsync(() -> SignHandler.signRemoved(loc), DatabaseExecutor.mainThread())
+            .exceptionally(DatabaseExecutor::logFailure);
       } else {
         player.sendMessage(
             new StringFormatter()
@@ -0,0 +1,107 @@
+package org.joshi234.playlegendgroupsystem.commands.subcommands;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
+import org.joshi234.playlegendgroupsystem.StringFormatter;
+import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.PoolMetrics;
+import org.joshi234.playlegendgroupsystem.metrics.LatencyHistogram;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
+
+/**
+ * The StatsSubCommand class represents the subcommand for showing the plugin's measurements: the
+ * time spent on the server thread, the slowest database operations, the cache hit ratios and the
+ * state of the connection pool. It implements the SubCommand interface and provides the necessary
+ * behavior for the command.
+ */
+public class StatsSubCommand implements SubCommand {
+
+  private static final int SHOWN_DAO_TIMERS = 5;
+
+  /**
+   * Called when the stats subcommand is executed.
+   *
+   * @param player  the player who executed the command
+   * @param command the executed command
+   * @param args    the command arguments
+   */
+  @Override
+  public void onCommand(Player player, Command command, String[] args) {
+    String uuid = player.getUniqueId().toString();
+
+    send(player, new StringFormatter().getLocalizedFormattedString(
+        "group-commands.stats.message-header", uuid));
+    send(player, new StringFormatter().getLocalizedFormattedString(
+            "group-commands.stats.message-main-thread", uuid)
+        .replaceKey("total", formatMillis(Metrics.getMainThreadNanos() / 1e6)));
+    for (Map.Entry<String, LatencyHistogram> entry : Metrics.getMainThreadTimers().entrySet()) {
+      send(player, formatTimer("group-commands.stats.message-timer", uuid, entry.getKey(),
+          entry.getValue()));
+    }
+
+    send(player, new StringFormatter().getLocalizedFormattedString(
+        "group-commands.stats.message-dao", uuid));
+    List<Map.Entry<String, LatencyHistogram>> daoTimers =
+        new ArrayList<>(Metrics.getDaoTimers().entrySet());
+    daoTimers.sort(Comparator.comparingLong(
+        (Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().getSumNanos()).reversed());
+    for (int i = 0; i < Math.min(SHOWN_DAO_TIMERS, daoTimers.size()); i++) {
+      Map.Entry<String, LatencyHistogram> entry = daoTimers.get(i);
+      if (entry.getValue().getCount() > 0) {
+        send(player, formatTimer("group-commands.stats.message-timer", uuid, entry.getKey(),
+            entry.getValue()));
+      }
+    }
+
+    for (Map.Entry<String, Metrics.CacheCounters> entry : Metrics.getCaches().entrySet()) {
+      send(player, new StringFormatter().getLocalizedFormattedString(
+              "group-commands.stats.message-cache", uuid)
+          .replaceKey("cache", entry.getKey())
+          .replaceKey("ratio", String.format(Locale.ROOT, "%.1f",
+              entry.getValue().hitRatio() * 100)));
+    }
+
+    PoolMetrics pool = DatabaseManager.getPoolMetrics();
+    if (pool != null) {
+      send(player, new StringFormatter().getLocalizedFormattedString(
+              "group-commands.stats.message-pool", uuid)
+          .replaceKey("active", String.valueOf(pool.getActiveConnections()))
+          .replaceKey("idle", String.valueOf(pool.getIdleConnections()))
+          .replaceKey("pending", String.valueOf(pool.getPendingThreads()))
+          .replaceKey("timeouts", String.valueOf(pool.getTimeouts())));
+    }
+  }
+
+  /**
+   * Gets the permission required to execute the stats subcommand.
+   *
+   * @return the permission string
+   */
+  @Override
+  public String getPermission() {
+    return null;
+  }
+
+  private static StringFormatter formatTimer(String key, String uuid, String name,
+      LatencyHistogram timer) {
+    return new StringFormatter().getLocalizedFormattedString(key, uuid)
+        .replaceKey("name", name)
+        .replaceKey("count", String.valueOf(timer.getCount()))
+        .replaceKey("average", formatMillis(timer.getAverageMillis()))
+        .replaceKey("p99", formatMillis(timer.getPercentileMillis(0.99)))
+        .replaceKey("max", formatMillis(timer.getMaxNanos() / 1e6));
+  }
+
+  private static String formatMillis(double millis) {
+    return String.format(Locale.ROOT, "%.2f", millis);
+  }
+
+  private static void send(Player player, StringFormatter formatter) {
+    player.sendMessage(formatter.getMessage());
+  }
+}
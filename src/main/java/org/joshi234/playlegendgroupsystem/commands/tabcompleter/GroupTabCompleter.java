@@ -1,6 +1,7 @@
 package org.joshi234.playlegendgroupsystem.commands.tabcompleter;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -30,16 +31,7 @@ public class GroupTabCompleter extends SubCommandTabCompleter {
     //Show SubCommands
     if (args.length == 1) {
       if (sender.isOp()) {
-        List<String> options = new ArrayList<>(commands.keySet());
-        List<String> result = new ArrayList<>(options);
-
-        for (String option : options) {
-          if (!option.startsWith(args[args.length - 1])) {
-            result.remove(option);
-          }
-        }
-
-        return new ArrayList<>(result);
+        return filterByPrefix(commands.keySet(), args[args.length - 1]);
       } else {
         return new ArrayList<>(List.of("show"));
       }
@@ -48,18 +40,28 @@ public class GroupTabCompleter extends SubCommandTabCompleter {
       String subCommand = args[0].toLowerCase();
 
       if (commands.containsKey(subCommand)) {
-        List<String> options = commands.get(subCommand).getArguments(args, args.length - 1);
-        List<String> result = new ArrayList<>(options);
-
-        for (String option : options) {
-          if (!option.startsWith(args[args.length - 1])) {
-            result.remove(option);
-          }
-        }
-        return result;
+        return filterByPrefix(commands.get(subCommand).getArguments(args, args.length - 1),
+            args[args.length - 1]);
       } else {
         return new ArrayList<>();
       }
     }
   }
+
+  /**
+   * Keeps the options that start with the typed argument, ignoring case.
+   *
+   * @param options the possible options
+   * @param prefix  the typed argument
+   * @return the matching options
+   */
+  private static List<String> filterByPrefix(Collection<String> options, String prefix) {
+    List<String> result = new ArrayList<>(options.size());
+    for (String option : options) {
+      if (option.regionMatches(true, 0, prefix, 0, prefix.length())) {
+        result.add(option);
+      }
+    }
+    return result;
+  }
 }
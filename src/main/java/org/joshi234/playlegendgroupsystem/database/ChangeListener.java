@@ -0,0 +1,158 @@
+package org.joshi234.playlegendgroupsystem.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import org.joshi234.playlegendgroupsystem.GroupSystem;
+import org.postgresql.Driver;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * The ChangeListener class receives the changes announced by the other servers sharing the
+ * database. It keeps its own connection outside of the pool, as a listening connection must stay
+ * open, and hands the changed keys to the handler registered for their change type. Handlers are
+ * called on the listener thread. If the connection is lost, notifications may have been missed, so
+ * the resync handler is called once the listener is connected again.
+ */
+public class ChangeListener {
+
+  private static final int POLL_TIMEOUT_MILLIS = 1000;
+  private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+  private static final Map<ChangeType, Consumer<List<String>>> handlers =
+      new ConcurrentHashMap<>();
+  private static volatile Runnable resyncHandler = () -> {
+  };
+  private static volatile Thread thread;
+  private static volatile boolean running;
+
+  /**
+   * Sets the handler that is called with the changed keys of a change type.
+   *
+   * @param type    the change type
+   * @param handler the handler of the change type
+   */
+  public static void register(ChangeType type, Consumer<List<String>> handler) {
+    handlers.put(type, handler);
+  }
+
+  /**
+   * Sets the handler that is called after the connection was lost and notifications may have been
+   * missed.
+   *
+   * @param handler the handler that reloads every cached value
+   */
+  public static void onResync(Runnable handler) {
+    resyncHandler = handler;
+  }
+
+  /**
+   * Starts listening for changes. An already running listener is shut down first.
+   *
+   * @param connectionString the JDBC URL of the database
+   * @param user             the user of the database
+   * @param password         the password of the user
+   */
+  public static synchronized void start(String connectionString, String user, String password) {
+    shutdown();
+
+    Properties properties = new Properties();
+    properties.setProperty("user", user);
+    properties.setProperty("password", password);
+    properties.setProperty("tcpKeepAlive", "true");
+    properties.setProperty("ApplicationName", "GroupSystem-ChangeListener");
+
+    running = true;
+    thread = new Thread(() -> listen(connectionString, properties), "GroupSystem-ChangeListener");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stops listening for changes and waits for the listener thread to finish.
+   */
+  public static synchronized void shutdown() {
+    if (thread == null) {
+      return;
+    }
+
+    running = false;
+    thread.interrupt();
+    try {
+      thread.join(POLL_TIMEOUT_MILLIS * 2L);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    thread = null;
+  }
+
+  private static void listen(String connectionString, Properties properties) {
+    boolean connectedBefore = false;
+
+    while (running) {
+      try (Connection connection = new Driver().connect(connectionString, properties)) {
+        if (connection == null) {
+          throw new SQLException("Unsupported connection string: " + connectionString);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + ChangeNotifier.CHANNEL);
+        }
+        if (connectedBefore) {
+          resyncHandler.run();
+        }
+        connectedBefore = true;
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              dispatch(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        GroupSystem.getInstance().getLogger()
+            .log(Level.WARNING, "Lost the change notification connection, reconnecting", e);
+        try {
+          Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException interrupted) {
+          return;
+        }
+      }
+    }
+  }
+
+  private static void dispatch(String payload) {
+    // The payload is "<node>:<type>:<key>\n<key>..."
+    String[] parts = payload.split(":", 3);
+    if (parts.length != 3 || parts[1].length() != 1
+        || parts[0].equals(ChangeNotifier.getNodeId())) {
+      return;
+    }
+
+    ChangeType type = ChangeType.fromCode(parts[1].charAt(0));
+    Consumer<List<String>> handler = type == null ? null : handlers.get(type);
+    if (handler == null) {
+      return;
+    }
+
+    try {
+      handler.accept(List.of(parts[2].split("\n")));
+    } catch (RuntimeException e) {
+      GroupSystem.getInstance().getLogger()
+          .log(Level.WARNING, "Could not apply change notification " + payload, e);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package org.joshi234.playlegendgroupsystem.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The ChangeNotifier class announces changes to the other servers sharing the database with
+ * PostgreSQL's NOTIFY. A notification consists of the ID of the sending server, the change type
+ * and the changed keys separated by newlines, for example {@code 3f2a9c1e:m:<uuid>}. Long key
+ * lists are split over several notifications.
+ */
+public class ChangeNotifier {
+
+  /**
+   * The channel changes are sent on.
+   */
+  public static final String CHANNEL = "groupsystem_changes";
+
+  private static final int MAX_PAYLOAD_LENGTH = 7900;
+  private static final String NODE_ID = UUID.randomUUID().toString().substring(0, 8);
+
+  private static volatile boolean enabled = true;
+
+  /**
+   * Retrieves the ID of this server, which the listener uses to skip its own notifications.
+   *
+   * @return the ID of this server
+   */
+  public static String getNodeId() {
+    return NODE_ID;
+  }
+
+  /**
+   * Enables or disables sending notifications, for servers that do not share their database.
+   *
+   * @param enabled whether changes are announced
+   */
+  public static void setEnabled(boolean enabled) {
+    ChangeNotifier.enabled = enabled;
+  }
+
+  /**
+   * Announces a change of a single key.
+   *
+   * @param connection the connection the change was written on
+   * @param type       the change type
+   * @param key        the changed key
+   * @throws SQLException if sending the notification fails
+   */
+  public static void publish(Connection connection, ChangeType type, String key)
+      throws SQLException {
+    publish(connection, type, List.of(key));
+  }
+
+  /**
+   * Announces a change of several keys. Notifications are delivered once the current transaction
+   * commits, or right away in auto-commit mode.
+   *
+   * @param connection the connection the change was written on
+   * @param type       the change type
+   * @param keys       the changed keys
+   * @throws SQLException if sending the notification fails
+   */
+  public static void publish(Connection connection, ChangeType type, Collection<String> keys)
+      throws SQLException {
+    if (!enabled || keys.isEmpty()) {
+      return;
+    }
+
+    String header = NODE_ID + ':' + type.getCode() + ':';
+    try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+      StringBuilder payload = new StringBuilder(header);
+      for (String key : keys) {
+        if (payload.length() > header.length()
+            && payload.length() + key.length() + 1 > MAX_PAYLOAD_LENGTH) {
+          send(statement, payload.toString());
+          payload.setLength(header.length());
+        }
+        if (payload.length() > header.length()) {
+          payload.append('\n');
+        }
+        payload.append(key);
+      }
+      send(statement, payload.toString());
+    }
+  }
+
+  private static void send(PreparedStatement statement, String payload) throws SQLException {
+    statement.setString(1, CHANNEL);
+    statement.setString(2, payload);
+    statement.executeQuery().close();
+  }
+}
@@ -0,0 +1,59 @@
+package org.joshi234.playlegendgroupsystem.database;
+
+/**
+ * The ChangeType enum lists the kinds of changes that are announced to the other servers sharing
+ * the database. Each kind is sent as a single character to keep notifications small.
+ */
+public enum ChangeType {
+
+  /**
+   * A group was created, updated or deleted. The keys are group IDs.
+   */
+  GROUP('g'),
+
+  /**
+   * The group memberships of players changed. The keys are player UUIDs.
+   */
+  MEMBERSHIP('m'),
+
+  /**
+   * The language preference of a player changed. The keys are player UUIDs.
+   */
+  LANGUAGE('l'),
+
+  /**
+   * A sign was added or removed. The keys are {@code +signid,x,y,z,world} for added and
+   * {@code -signid,x,y,z,world} for removed signs.
+   */
+  SIGN('s');
+
+  private final char code;
+
+  ChangeType(char code) {
+    this.code = code;
+  }
+
+  /**
+   * Retrieves the character the change type is sent as.
+   *
+   * @return the code of the change type
+   */
+  public char getCode() {
+    return code;
+  }
+
+  /**
+   * Retrieves the change type that is sent as the specified character.
+   *
+   * @param code the code of the change type
+   * @return the change type, or {@code null} if the code is unknown
+   */
+  public static ChangeType fromCode(char code) {
+    for (ChangeType type : values()) {
+      if (type.code == code) {
+        return type;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,165 @@
+package org.joshi234.playlegendgroupsystem.database;
+
+/**
+ * The ConnectionPoolSettings class holds the sizing and health check options of the database
+ * connection pool. Every option has a default that is suitable for a single Paper server.
+ */
+public class ConnectionPoolSettings {
+
+  private int minimumIdle = 2;
+  private int maximumPoolSize = 10;
+  private long connectionTimeout = 5000;
+  private long validationTimeout = 2000;
+  private long leakDetectionThreshold = 10000;
+  private long maxLifetime = 1800000;
+  private int prepareThreshold = 5;
+  private int statementCacheSize = 256;
+
+  /**
+   * Retrieves the minimum number of idle connections kept open by the pool.
+   *
+   * @return the minimum number of idle connections
+   */
+  public int getMinimumIdle() {
+    return minimumIdle;
+  }
+
+  /**
+   * Sets the minimum number of idle connections kept open by the pool.
+   *
+   * @param minimumIdle the minimum number of idle connections
+   */
+  public void setMinimumIdle(int minimumIdle) {
+    this.minimumIdle = minimumIdle;
+  }
+
+  /**
+   * Retrieves the maximum number of connections the pool will open.
+   *
+   * @return the maximum pool size
+   */
+  public int getMaximumPoolSize() {
+    return maximumPoolSize;
+  }
+
+  /**
+   * Sets the maximum number of connections the pool will open.
+   *
+   * @param maximumPoolSize the maximum pool size
+   */
+  public void setMaximumPoolSize(int maximumPoolSize) {
+    this.maximumPoolSize = maximumPoolSize;
+  }
+
+  /**
+   * Retrieves how long a caller waits for a free connection before failing, in milliseconds.
+   *
+   * @return the connection timeout in milliseconds
+   */
+  public long getConnectionTimeout() {
+    return connectionTimeout;
+  }
+
+  /**
+   * Sets how long a caller waits for a free connection before failing, in milliseconds.
+   *
+   * @param connectionTimeout the connection timeout in milliseconds
+   */
+  public void setConnectionTimeout(long connectionTimeout) {
+    this.connectionTimeout = connectionTimeout;
+  }
+
+  /**
+   * Retrieves how long a connection may take to pass validation, in milliseconds.
+   *
+   * @return the validation timeout in milliseconds
+   */
+  public long getValidationTimeout() {
+    return validationTimeout;
+  }
+
+  /**
+   * Sets how long a connection may take to pass validation, in milliseconds.
+   *
+   * @param validationTimeout the validation timeout in milliseconds
+   */
+  public void setValidationTimeout(long validationTimeout) {
+    this.validationTimeout = validationTimeout;
+  }
+
+  /**
+   * Retrieves how long a connection may stay borrowed before it is reported as a leak, in
+   * milliseconds. A value of 0 disables leak detection.
+   *
+   * @return the leak detection threshold in milliseconds
+   */
+  public long getLeakDetectionThreshold() {
+    return leakDetectionThreshold;
+  }
+
+  /**
+   * Sets how long a connection may stay borrowed before it is reported as a leak, in milliseconds.
+   * A value of 0 disables leak detection.
+   *
+   * @param leakDetectionThreshold the leak detection threshold in milliseconds
+   */
+  public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+    this.leakDetectionThreshold = leakDetectionThreshold;
+  }
+
+  /**
+   * Retrieves the maximum lifetime of a pooled connection, in milliseconds.
+   *
+   * @return the maximum connection lifetime in milliseconds
+   */
+  public long getMaxLifetime() {
+    return maxLifetime;
+  }
+
+  /**
+   * Sets the maximum lifetime of a pooled connection, in milliseconds.
+   *
+   * @param maxLifetime the maximum connection lifetime in milliseconds
+   */
+  public void setMaxLifetime(long maxLifetime) {
+    this.maxLifetime = maxLifetime;
+  }
+
+  /**
+   * Retrieves how often a statement is executed before the driver prepares it on the server.
+   * Named queries are always prepared on their first execution.
+   *
+   * @return the number of executions before a statement is prepared on the server
+   */
+  public int getPrepareThreshold() {
+    return prepareThreshold;
+  }
+
+  /**
+   * Sets how often a statement is executed before the driver prepares it on the server. A value
+   * of 0 disables server prepared statements for every query except named ones.
+   *
+   * @param prepareThreshold the number of executions before a statement is prepared on the server
+   */
+  public void setPrepareThreshold(int prepareThreshold) {
+    this.prepareThreshold = prepareThreshold;
+  }
+
+  /**
+   * Retrieves how many prepared statements each pooled connection keeps.
+   *
+   * @return the statement cache size of a connection
+   */
+  public int getStatementCacheSize() {
+    return statementCacheSize;
+  }
+
+  /**
+   * Sets how many prepared statements each pooled connection keeps.
+   *
+   * @param statementCacheSize the statement cache size of a connection
+   */
+  public void setStatementCacheSize(int statementCacheSize) {
+    this.statementCacheSize = statementCacheSize;
+  }
+}
@@ -0,0 +1,134 @@
+package org.joshi234.playlegendgroupsystem.database;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import org.bukkit.Bukkit;
+import org.joshi234.playlegendgroupsystem.GroupSystem;
+
+/**
+ * The DatabaseExecutor class runs database work on a dedicated, bounded thread pool so it never
+ * blocks the server thread. Results can be handed back to the server thread with
+ * {@link #mainThread()}.
+ */
+public class DatabaseExecutor {
+
+  private static final int DEFAULT_THREADS = 4;
+  private static final int DEFAULT_QUEUE_SIZE = 1000;
+  private static final Executor MAIN_THREAD = runnable -> Bukkit.getScheduler()
+      .runTask(GroupSystem.getInstance(), runnable);
+
+  private static volatile ThreadPoolExecutor executor;
+
+  /**
+   * Starts the executor. An already running executor is shut down first.
+   *
+   * @param threads   the number of database worker threads
+   * @param queueSize the number of tasks that may wait for a worker before new tasks are rejected
+   */
+  public static synchronized void start(int threads, int queueSize) {
+    shutdown();
+
+    AtomicInteger threadId = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "GroupSystem-Database-" + threadId.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+
+    executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueSize), threadFactory);
+  }
+
+  /**
+   * Stops accepting new tasks and waits a few seconds for queued tasks to finish.
+   */
+  public static synchronized void shutdown() {
+    if (executor == null) {
+      return;
+    }
+
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    executor = null;
+  }
+
+  /**
+   * Runs a task on a database thread.
+   *
+   * @param task the task to run
+   * @param <T>  the result type of the task
+   * @return a future completed with the result of the task on a database thread
+   */
+  public static <T> CompletableFuture<T> supply(Supplier<T> task) {
+    try {
+      return CompletableFuture.supplyAsync(task, getExecutor());
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Runs a task without a result on a database thread.
+   *
+   * @param task the task to run
+   * @return a future completed on a database thread once the task finished
+   */
+  public static CompletableFuture<Void> run(Runnable task) {
+    try {
+      return CompletableFuture.runAsync(task, getExecutor());
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Retrieves an executor that runs tasks on the server thread through the Bukkit scheduler.
+   *
+   * @return the server thread executor
+   */
+  public static Executor mainThread() {
+    return MAIN_THREAD;
+  }
+
+  /**
+   * Logs the failure of an asynchronous database operation. Meant to be passed to
+   * {@link CompletableFuture#exceptionally(java.util.function.Function)}.
+   *
+   * @param error the error the operation failed with
+   * @param <T>   the result type of the operation
+   * @return always {@code null}
+   */
+  public static <T> T logFailure(Throwable error) {
+    GroupSystem.getInstance().getLogger().log(Level.SEVERE, "Database operation failed", error);
+    return null;
+  }
+
+  private static Executor getExecutor() {
+    ThreadPoolExecutor current = executor;
+    if (current != null) {
+      return current;
+    }
+
+    synchronized (DatabaseExecutor.class) {
+      if (executor == null) {
+        start(DEFAULT_THREADS, DEFAULT_QUEUE_SIZE);
+      }
+      return executor;
+    }
+  }
+}
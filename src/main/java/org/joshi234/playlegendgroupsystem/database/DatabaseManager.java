@@ -1,56 +1,228 @@
 package org.joshi234.playlegendgroupsystem.database;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Properties;
 
 /**
- * The DatabaseManager class handles the connection to the database. It provides methods to connect
- * to the database and retrieve the connection object.
+ * The DatabaseManager class handles the connection pool of the database. It provides methods to
+ * connect to the database and borrow connections from the pool. Borrowed connections must be
+ * closed by the caller, which returns them to the pool. The schema is kept up to date by the
+ * numbered migrations in {@code db/migration}.
  */
 public class DatabaseManager {
 
-  private static Connection conn;
+  /**
+   * The migrations in the order they are applied. The number after the V is the version recorded
+   * in the schema_version table, so released migrations must never change.
+   */
+  private static final String[] MIGRATIONS = {
+      "V1__baseline",
+      "V2__lookup_indexes",
+      "V3__foreign_key_types"
+  };
+  // Held while migrating, so servers starting together do not apply a migration twice
+  private static final long MIGRATION_LOCK = 4_753_201L;
+
+  private static HikariDataSource dataSource;
+  private static PoolMetrics poolMetrics;
 
   /**
-   * Establishes a connection to the database.
+   * Opens the connection pool with the default pool settings.
    *
    * @throws SQLException if an SQL exception occurs during the connection
    */
   public static void connect(String user, String password, String currentSchema,
       String connectionString)
       throws SQLException {
+    connect(user, password, currentSchema, connectionString, new ConnectionPoolSettings());
+  }
+
+  /**
+   * Opens the connection pool. An already open pool is closed first.
+   *
+   * @param settings the sizing and health check options of the pool
+   * @throws SQLException if an SQL exception occurs during the connection
+   */
+  public static void connect(String user, String password, String currentSchema,
+      String connectionString, ConnectionPoolSettings settings)
+      throws SQLException {
+    disconnect();
+
+    HikariConfig config = new HikariConfig();
+    config.setPoolName("GroupSystem");
+    config.setDriverClassName("org.postgresql.Driver");
+    config.setJdbcUrl(connectionString);
+    config.setUsername(user);
+    config.setPassword(password);
+    config.addDataSourceProperty("currentSchema", currentSchema);
+    config.addDataSourceProperty("prepareThreshold", settings.getPrepareThreshold());
+    config.addDataSourceProperty("preparedStatementCacheQueries",
+        settings.getStatementCacheSize());
+    config.setMinimumIdle(settings.getMinimumIdle());
+    config.setMaximumPoolSize(settings.getMaximumPoolSize());
+    config.setConnectionTimeout(settings.getConnectionTimeout());
+    config.setValidationTimeout(settings.getValidationTimeout());
+    config.setLeakDetectionThreshold(settings.getLeakDetectionThreshold());
+    config.setMaxLifetime(settings.getMaxLifetime());
+
+    PoolMetrics metrics = new PoolMetrics();
+    config.setMetricsTrackerFactory(metrics);
+
     try {
-      Class.forName("org.postgresql.Driver");
-    } catch (ClassNotFoundException e) {
-      throw new RuntimeException(e);
+      dataSource = new HikariDataSource(config);
+    } catch (RuntimeException e) {
+      throw new SQLException("Could not open the connection pool", e);
     }
+    poolMetrics = metrics;
+  }
 
-    Properties props = new Properties();
-    props.setProperty("user", user);
-    props.setProperty("password", password);
-    props.setProperty("currentSchema", currentSchema);
+  /**
+   * Closes the connection pool and all of its connections.
+   */
+  public static void disconnect() {
+    if (dataSource != null) {
+      dataSource.close();
+      dataSource = null;
+    }
+  }
 
-    conn = DriverManager.getConnection(connectionString,
-        props);
+  /**
+   * Borrows a connection from the pool. The connection is returned to the pool when it is closed.
+   * Its statements are watched by the {@link QueryGuard}.
+   *
+   * @return a pooled connection
+   * @throws SQLException if no connection becomes available within the connection timeout
+   */
+  public static Connection getConnection() throws SQLException {
+    if (dataSource == null) {
+      throw new SQLException("The connection pool is not open");
+    }
+    return QueryGuard.wrap(dataSource.getConnection());
   }
 
   /**
-   * Retrieves the connection object.
+   * Retrieves the wait time and usage metrics of the connection pool.
    *
-   * @return the connection object
+   * @return the pool metrics, or {@code null} if the pool has never been opened
    */
-  public static Connection getConnection() {
-    return conn;
+  public static PoolMetrics getPoolMetrics() {
+    return poolMetrics;
   }
 
   public static void createGroupSchema() throws SQLException {
     String sql = "CREATE SCHEMA IF NOT EXISTS \"group\"";
 
-    try (Statement statement = conn.createStatement()) {
+    try (Connection connection = getConnection();
+        Statement statement = connection.createStatement()) {
       statement.executeUpdate(sql);
     }
   }
+
+  /**
+   * Applies the migrations the database has not applied yet. Each migration runs in its own
+   * transaction together with its schema_version row, so a failed migration leaves the schema
+   * unchanged and is applied again on the next start. An up to date schema only costs reading the
+   * applied version.
+   *
+   * @return the number of migrations that were applied
+   * @throws SQLException if a migration fails
+   */
+  public static int migrate() throws SQLException {
+    createGroupSchema();
+
+    try (Connection connection = getConnection()) {
+      try (Statement statement = connection.createStatement()) {
+        statement.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version INT PRIMARY KEY,"
+            + "name VARCHAR(100) NOT NULL,"
+            + "applied TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP,"
+            + "duration INT NOT NULL"
+            + ")");
+      }
+      if (getSchemaVersion(connection) >= getVersion(MIGRATIONS[MIGRATIONS.length - 1])) {
+        return 0;
+      }
+
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("SELECT pg_advisory_lock(" + MIGRATION_LOCK + ")");
+      }
+      try {
+        // Another server may have migrated while this one waited for the lock
+        int schemaVersion = getSchemaVersion(connection);
+        int applied = 0;
+        for (String migration : MIGRATIONS) {
+          if (getVersion(migration) > schemaVersion) {
+            applyMigration(connection, migration);
+            applied++;
+          }
+        }
+        return applied;
+      } finally {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("SELECT pg_advisory_unlock(" + MIGRATION_LOCK + ")");
+        }
+      }
+    }
+  }
+
+  /**
+   * Retrieves the version of the latest migration the database has applied.
+   *
+   * @param connection the connection to read the version with
+   * @return the schema version, or 0 if no migration has been applied
+   * @throws SQLException if the version cannot be read
+   */
+  private static int getSchemaVersion(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet result = statement.executeQuery(
+            "SELECT coalesce(max(version), 0) FROM schema_version")) {
+      result.next();
+      return result.getInt(1);
+    }
+  }
+
+  private static void applyMigration(Connection connection, String migration)
+      throws SQLException {
+    String sql;
+    try (InputStream input = DatabaseManager.class
+        .getResourceAsStream("/db/migration/" + migration + ".sql")) {
+      if (input == null) {
+        throw new SQLException("Missing migration " + migration);
+      }
+      sql = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new SQLException("Could not read migration " + migration, e);
+    }
+
+    long start = System.nanoTime();
+    connection.setAutoCommit(false);
+    try (Statement statement = connection.createStatement();
+        PreparedStatement record = connection.prepareStatement(
+            "INSERT INTO schema_version (version, name, duration) VALUES (?,?,?)")) {
+      statement.execute(sql);
+
+      record.setInt(1, getVersion(migration));
+      record.setString(2, migration);
+      record.setInt(3, (int) ((System.nanoTime() - start) / 1_000_000));
+      record.executeUpdate();
+      connection.commit();
+    } catch (SQLException e) {
+      connection.rollback();
+      throw new SQLException("Migration " + migration + " failed", e);
+    } finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  private static int getVersion(String migration) {
+    return Integer.parseInt(migration.substring(1, migration.indexOf("__")));
+  }
 }
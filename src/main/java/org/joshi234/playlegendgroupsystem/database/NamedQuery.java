@@ -0,0 +1,105 @@
+package org.joshi234.playlegendgroupsystem.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.postgresql.PGStatement;
+
+/**
+ * The NamedQuery class registers a query that runs on a hot path, such as a prefix lookup or
+ * loading a player on join. The statements of a named query are prepared on the server on their
+ * first execution. The driver keeps them in the statement cache of each pooled connection, keyed
+ * by their SQL, so the query is only parsed and planned once per connection. The registry makes
+ * sure every hot path uses exactly the same SQL and gives slow queries a readable name.
+ */
+public class NamedQuery {
+
+  private static final Map<String, NamedQuery> registry = new ConcurrentHashMap<>();
+  private static final Map<String, NamedQuery> registryBySql = new ConcurrentHashMap<>();
+
+  private final String name;
+  private final String sql;
+
+  private NamedQuery(String name, String sql) {
+    this.name = name;
+    this.sql = sql;
+  }
+
+  /**
+   * Registers a named query.
+   *
+   * @param name the unique name of the query
+   * @param sql  the SQL of the query
+   * @return the registered query
+   * @throws IllegalStateException if another query with the same name has been registered
+   */
+  public static NamedQuery define(String name, String sql) {
+    NamedQuery query = new NamedQuery(name, sql);
+    if (registry.putIfAbsent(name, query) != null) {
+      throw new IllegalStateException("The query " + name + " is already registered");
+    }
+    registryBySql.putIfAbsent(sql, query);
+    return query;
+  }
+
+  /**
+   * Retrieves the registered query with the specified SQL.
+   *
+   * @param sql the SQL of the query
+   * @return the query, or {@code null} if no query with the SQL has been registered
+   */
+  static NamedQuery findBySql(String sql) {
+    return sql == null ? null : registryBySql.get(sql);
+  }
+
+  /**
+   * Retrieves every registered query.
+   *
+   * @return the registered queries
+   */
+  public static Collection<NamedQuery> getRegistered() {
+    return Collections.unmodifiableCollection(registry.values());
+  }
+
+  /**
+   * Prepares a statement of the query on a borrowed connection. The statement must be closed by
+   * the caller, preferably in a try-with-resources block, which returns it to the statement cache
+   * of the connection.
+   *
+   * @param connection the borrowed connection
+   * @return the prepared statement
+   * @throws SQLException if the statement cannot be prepared
+   */
+  public PreparedStatement prepare(Connection connection) throws SQLException {
+    PreparedStatement statement = connection.prepareStatement(sql);
+    try {
+      statement.unwrap(PGStatement.class).setPrepareThreshold(1);
+    } catch (SQLException e) {
+      statement.close();
+      throw e;
+    }
+    return statement;
+  }
+
+  /**
+   * Retrieves the name of the query.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Retrieves the SQL of the query.
+   *
+   * @return the SQL
+   */
+  public String getSql() {
+    return sql;
+  }
+}
@@ -0,0 +1,121 @@
+package org.joshi234.playlegendgroupsystem.database;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The PoolMetrics class collects how long callers wait for a pooled connection and how long they
+ * keep it. It is registered with the pool as its metrics tracker.
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+  private final LongAdder acquireCount = new LongAdder();
+  private final LongAdder acquireNanos = new LongAdder();
+  private final LongAccumulator maxAcquireNanos = new LongAccumulator(Long::max, 0);
+  private final LongAdder usageMillis = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private volatile PoolStats poolStats;
+
+  @Override
+  public IMetricsTracker create(String poolName, PoolStats poolStats) {
+    this.poolStats = poolStats;
+    return new IMetricsTracker() {
+      @Override
+      public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireCount.increment();
+        acquireNanos.add(elapsedAcquiredNanos);
+        maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+      }
+
+      @Override
+      public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageMillis.add(elapsedBorrowedMillis);
+      }
+
+      @Override
+      public void recordConnectionTimeout() {
+        timeouts.increment();
+      }
+    };
+  }
+
+  /**
+   * Retrieves how often a connection has been borrowed from the pool.
+   *
+   * @return the number of borrowed connections
+   */
+  public long getAcquireCount() {
+    return acquireCount.sum();
+  }
+
+  /**
+   * Retrieves the average time a caller waited for a connection, in milliseconds.
+   *
+   * @return the average wait time in milliseconds
+   */
+  public double getAverageWaitMillis() {
+    long count = acquireCount.sum();
+    if (count == 0) {
+      return 0;
+    }
+    return (double) acquireNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Retrieves the longest time a caller waited for a connection, in milliseconds.
+   *
+   * @return the maximum wait time in milliseconds
+   */
+  public double getMaxWaitMillis() {
+    return (double) maxAcquireNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Retrieves the total time connections were borrowed, in milliseconds.
+   *
+   * @return the total usage time in milliseconds
+   */
+  public long getTotalUsageMillis() {
+    return usageMillis.sum();
+  }
+
+  /**
+   * Retrieves how often a caller gave up waiting for a connection.
+   *
+   * @return the number of connection timeouts
+   */
+  public long getTimeouts() {
+    return timeouts.sum();
+  }
+
+  /**
+   * Retrieves the number of connections currently borrowed from the pool.
+   *
+   * @return the number of active connections
+   */
+  public int getActiveConnections() {
+    return poolStats == null ? 0 : poolStats.getActiveConnections();
+  }
+
+  /**
+   * Retrieves the number of idle connections in the pool.
+   *
+   * @return the number of idle connections
+   */
+  public int getIdleConnections() {
+    return poolStats == null ? 0 : poolStats.getIdleConnections();
+  }
+
+  /**
+   * Retrieves the number of callers currently waiting for a connection.
+   *
+   * @return the number of waiting callers
+   */
+  public int getPendingThreads() {
+    return poolStats == null ? 0 : poolStats.getPendingThreads();
+  }
+}
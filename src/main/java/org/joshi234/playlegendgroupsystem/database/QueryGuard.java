@@ -0,0 +1,222 @@
+package org.joshi234.playlegendgroupsystem.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The QueryGuard class watches every statement executed on a pooled connection. Queries that run
+ * on the server thread block the game, so each of them is counted and logged once per call site
+ * with a stack sample. Statements slower than the slow query threshold are logged with their SQL,
+ * their number of bind parameters and the thread they ran on. In strict mode, a query on the server
+ * thread fails with an {@link IllegalStateException} instead, which makes tests fail on blocking
+ * paths. Strict mode is enabled with the {@value #STRICT_PROPERTY} system property.
+ */
+public class QueryGuard {
+
+  /**
+   * The system property that enables strict mode.
+   */
+  public static final String STRICT_PROPERTY = "groupsystem.query-guard.strict";
+
+  private static final Map<String, Boolean> reportedCallSites = new ConcurrentHashMap<>();
+  private static final LongAdder serverThreadQueries = new LongAdder();
+  private static final LongAdder slowQueries = new LongAdder();
+
+  private static volatile Thread serverThread;
+  private static volatile long slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(100);
+  private static volatile boolean strict = Boolean.getBoolean(STRICT_PROPERTY);
+  private static volatile Logger logger = Logger.getLogger(QueryGuard.class.getName());
+
+  /**
+   * Sets the thread that must not run queries, usually the server thread.
+   *
+   * @param thread the server thread, or {@code null} to stop watching for blocking queries
+   */
+  public static void setServerThread(Thread thread) {
+    serverThread = thread;
+  }
+
+  /**
+   * Sets the duration above which a statement is logged as slow.
+   *
+   * @param millis the threshold in milliseconds
+   */
+  public static void setSlowQueryThreshold(long millis) {
+    slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  /**
+   * Enables or disables strict mode, in which a query on the server thread fails.
+   *
+   * @param enabled whether strict mode is enabled
+   */
+  public static void setStrict(boolean enabled) {
+    strict = enabled;
+  }
+
+  /**
+   * Sets the logger blocking and slow queries are reported to.
+   *
+   * @param guardLogger the logger, usually the logger of the plugin
+   */
+  public static void setLogger(Logger guardLogger) {
+    logger = guardLogger;
+  }
+
+  /**
+   * Retrieves the number of queries that ran on the server thread.
+   *
+   * @return the number of blocking queries
+   */
+  public static long getServerThreadQueries() {
+    return serverThreadQueries.sum();
+  }
+
+  /**
+   * Retrieves the number of statements that were slower than the slow query threshold.
+   *
+   * @return the number of slow statements
+   */
+  public static long getSlowQueries() {
+    return slowQueries.sum();
+  }
+
+  /**
+   * Wraps a borrowed connection, so the statements created by it are watched. Closing the wrapper
+   * closes the connection.
+   *
+   * @param connection the borrowed connection
+   * @return the watched connection
+   */
+  static Connection wrap(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(QueryGuard.class.getClassLoader(),
+        new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static void beforeExecution(String sql) {
+    if (Thread.currentThread() != serverThread) {
+      return;
+    }
+
+    serverThreadQueries.increment();
+    if (strict) {
+      throw new IllegalStateException("Query ran on the server thread: " + sql);
+    }
+
+    Throwable sample = new Throwable("Stack sample of the blocking query");
+    if (reportedCallSites.putIfAbsent(getCallSite(sample) + '\n' + sql, Boolean.TRUE) == null) {
+      logger.log(Level.WARNING, "Query ran on the server thread: " + sql, sample);
+    }
+  }
+
+  private static void afterExecution(String sql, long startNanos, int binds, int batchSize) {
+    long duration = System.nanoTime() - startNanos;
+    if (duration <= slowQueryNanos) {
+      return;
+    }
+
+    slowQueries.increment();
+    NamedQuery namedQuery = NamedQuery.findBySql(sql);
+    logger.warning("Slow query" + (namedQuery == null ? "" : " " + namedQuery.getName()) + " ("
+        + TimeUnit.NANOSECONDS.toMillis(duration) + " ms, " + binds + " binds"
+        + (batchSize > 0 ? ", " + batchSize + " batched" : "") + ", thread "
+        + Thread.currentThread().getName() + "): " + sql);
+  }
+
+  private static String getCallSite(Throwable sample) {
+    // The first frame outside of the guard and the proxy is the calling DAO method
+    for (StackTraceElement frame : sample.getStackTrace()) {
+      String className = frame.getClassName();
+      if (!className.startsWith(QueryGuard.class.getName()) && !className.startsWith("jdk.proxy")
+          && !className.startsWith("com.sun.proxy")) {
+        return frame.toString();
+      }
+    }
+    return "";
+  }
+
+  private static final class ConnectionHandler implements InvocationHandler {
+
+    private final Connection connection;
+
+    private ConnectionHandler(Connection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = QueryGuard.invoke(connection, method, args);
+      if (!(result instanceof Statement)) {
+        return result;
+      }
+
+      // Prepared statements and calls carry their SQL, plain statements get it on execution
+      String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+      return Proxy.newProxyInstance(QueryGuard.class.getClassLoader(),
+          new Class<?>[]{method.getReturnType()}, new StatementHandler((Statement) result, sql));
+    }
+  }
+
+  private static final class StatementHandler implements InvocationHandler {
+
+    private final Statement statement;
+    private final String preparedSql;
+    private int binds;
+    private int batchSize;
+
+    private StatementHandler(Statement statement, String preparedSql) {
+      this.statement = statement;
+      this.preparedSql = preparedSql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.startsWith("set") && args != null && args.length > 1
+          && args[0] instanceof Integer index) {
+        binds = Math.max(binds, index);
+      } else if (name.equals("addBatch")) {
+        batchSize++;
+      } else if (name.equals("clearParameters")) {
+        binds = 0;
+      } else if (name.equals("clearBatch")) {
+        batchSize = 0;
+      }
+
+      if (!name.startsWith("execute")) {
+        return QueryGuard.invoke(statement, method, args);
+      }
+
+      String sql = args != null && args.length > 0 && args[0] instanceof String executed
+          ? executed : preparedSql;
+      beforeExecution(sql);
+      long start = System.nanoTime();
+      try {
+        return QueryGuard.invoke(statement, method, args);
+      } finally {
+        afterExecution(sql, start, binds, batchSize);
+        if (name.equals("executeBatch")) {
+          batchSize = 0;
+        }
+      }
+    }
+  }
+}
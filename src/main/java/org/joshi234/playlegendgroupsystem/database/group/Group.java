@@ -1,12 +1,20 @@
 package org.joshi234.playlegendgroupsystem.database.group;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import org.joshi234.playlegendgroupsystem.ChatFormats;
+import org.joshi234.playlegendgroupsystem.PrefixComponents;
+import org.joshi234.playlegendgroupsystem.database.ChangeNotifier;
+import org.joshi234.playlegendgroupsystem.database.ChangeType;
 import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.NamedQuery;
+import org.joshi234.playlegendgroupsystem.metrics.LatencyHistogram;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
 
 /**
  * The Group class represents a group in the PlayLegend Group System. Each group has a unique
@@ -14,6 +22,19 @@ import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
  */
 public class Group {
 
+  private static final LatencyHistogram LOAD_GROUP_TIMER = Metrics.daoTimer("Group.loadGroup");
+  private static final LatencyHistogram CREATE_GROUP_TIMER = Metrics.daoTimer("Group.createGroup");
+  private static final LatencyHistogram LOAD_GROUP_BY_NAME_TIMER =
+      Metrics.daoTimer("Group.loadGroupByName");
+  private static final LatencyHistogram UPDATE_GROUP_TIMER = Metrics.daoTimer("Group.updateGroup");
+  private static final LatencyHistogram DELETE_GROUP_TIMER = Metrics.daoTimer("Group.deleteGroup");
+  private static final LatencyHistogram LOAD_ALL_GROUPS_TIMER =
+      Metrics.daoTimer("Group.loadAllGroups");
+  private static final NamedQuery GROUP_BY_ID = NamedQuery.define("group-by-id",
+      "SELECT * FROM \"group\" WHERE groupId = ?");
+  private static final NamedQuery GROUP_BY_NAME = NamedQuery.define("group-by-name",
+      "SELECT * FROM \"group\" WHERE name = ?");
+
   private int groupId;
   private String name;
   private String prefix;
@@ -41,6 +62,17 @@ public class Group {
   public Group() {
   }
 
+  /**
+   * Creates a copy of this group, including its ID.
+   *
+   * @return the copy of the group
+   */
+  Group copy() {
+    Group group = new Group(name, prefix, description, weight);
+    group.groupId = groupId;
+    return group;
+  }
+
   /**
    * Retrieves the group ID.
    *
@@ -129,27 +161,27 @@ public class Group {
    * @throws RuntimeException if no group is found for the given group ID
    */
   public void loadGroup(int groupId) {
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("SELECT * FROM \"group\" WHERE groupId = ?");
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = GROUP_BY_ID.prepare(connection)) {
       statement.setInt(1, groupId);
 
-      ResultSet result = statement.executeQuery();
-      if (!result.next()) {
-        throw new RuntimeException(
-            "No result found in group for groupId: " + groupId);
-      } else {
-        this.groupId = result.getInt("groupId");
-        setName(result.getString("name"));
-        setDescription(result.getString("description"));
-        setPrefix(result.getString("prefix"));
-        setWeight(result.getInt("weight"));
+      try (ResultSet result = statement.executeQuery()) {
+        if (!result.next()) {
+          throw new RuntimeException(
+              "No result found in group for groupId: " + groupId);
+        } else {
+          this.groupId = result.getInt("groupId");
+          setName(result.getString("name"));
+          setDescription(result.getString("description"));
+          setPrefix(result.getString("prefix"));
+          setWeight(result.getInt("weight"));
+        }
       }
-
-      result.close();
-      statement.close();
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      LOAD_GROUP_TIMER.recordSince(start);
     }
   }
 
@@ -160,27 +192,30 @@ public class Group {
    * @throws RuntimeException if creating the group fails
    */
   public void createGroup() {
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection().prepareStatement(
-          "INSERT INTO \"group\" (name, prefix, description, weight) VALUES (?,?,?,?)");
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "INSERT INTO \"group\" (name, prefix, description, weight) VALUES (?,?,?,?) "
+                + "RETURNING groupid")) {
       statement.setString(1, getName());
       statement.setString(2, getPrefix());
       statement.setString(3, getDescription());
       statement.setInt(4, getWeight());
-      int affectedRows = statement.executeUpdate();
-      if (affectedRows == 0) {
-        throw new SQLException("Creating group failed");
-      }
 
-      ResultSet result = statement.getGeneratedKeys();
-      if (result.next()) {
-        this.groupId = result.getInt(1);
-        statement.close();
+      try (ResultSet result = statement.executeQuery()) {
+        if (!result.next()) {
+          throw new SQLException("Creating group failed");
+        }
+        this.groupId = result.getInt("groupid");
       }
-
+      ChangeNotifier.publish(connection, ChangeType.GROUP, String.valueOf(this.groupId));
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      CREATE_GROUP_TIMER.recordSince(start);
     }
+
+    GroupCatalog.groupCreated(this);
   }
 
   /**
@@ -190,32 +225,33 @@ public class Group {
    * @throws RuntimeException if no group is found for the given name
    */
   public void loadGroupByName(String name) {
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("SELECT * FROM \"group\" WHERE name = ?");
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = GROUP_BY_NAME.prepare(connection)) {
       statement.setString(1, name);
 
-      ResultSet result = statement.executeQuery();
-      if (!result.next()) {
-        throw new RuntimeException(
-            "No result found in group for groupname: " + name);
-      } else {
-        this.groupId = result.getInt("groupId");
-        setName(result.getString("name"));
-        setDescription(result.getString("description"));
-        setPrefix(result.getString("prefix"));
-        setWeight(result.getInt("weight"));
+      try (ResultSet result = statement.executeQuery()) {
+        if (!result.next()) {
+          throw new RuntimeException(
+              "No result found in group for groupname: " + name);
+        } else {
+          this.groupId = result.getInt("groupId");
+          setName(result.getString("name"));
+          setDescription(result.getString("description"));
+          setPrefix(result.getString("prefix"));
+          setWeight(result.getInt("weight"));
+        }
       }
-
-      result.close();
-      statement.close();
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      LOAD_GROUP_BY_NAME_TIMER.recordSince(start);
     }
   }
 
   /**
-   * Updates a specific property of the group in the database.
+   * Updates a specific property of the group in the database. Cached prefixes are dropped when the
+   * prefix or weight changes.
    *
    * @param key     the key of the property to update
    * @param value   the new value for the property
@@ -223,9 +259,10 @@ public class Group {
    * @throws RuntimeException if updating the group fails
    */
   public void updateGroup(String key, String value, int groupId) {
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("UPDATE \"group\" SET " + key + " = ? WHERE groupid = ?");
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("UPDATE \"group\" SET " + key + " = ? WHERE groupid = ?")) {
 
       if (Objects.equals(key, "weight")) {
         statement.setInt(1, Integer.parseInt(value));
@@ -234,9 +271,20 @@ public class Group {
       }
       statement.setInt(2, groupId);
       statement.executeUpdate();
-      statement.close();
+      ChangeNotifier.publish(connection, ChangeType.GROUP, String.valueOf(groupId));
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      UPDATE_GROUP_TIMER.recordSince(start);
+    }
+
+    GroupCatalog.groupUpdated(key, value, groupId);
+
+    // The prefix and weight decide which prefix every member of the group is shown with
+    if (Objects.equals(key, "prefix") || Objects.equals(key, "weight")) {
+      JoinGroup.invalidateAllPrefixes();
+      PrefixComponents.invalidateAll();
+      ChatFormats.invalidateAll();
     }
   }
 
@@ -248,20 +296,16 @@ public class Group {
    */
   public List<String> getGroupNames() {
 
-    try {
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("SELECT name FROM \"group\"");
+        ResultSet result = statement.executeQuery()) {
       List<String> groupNames = new ArrayList<>();
 
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("SELECT name FROM \"group\"");
-      ResultSet result = statement.executeQuery();
-
       while (result.next()) {
         groupNames.add(result.getString("name"));
       }
 
-      result.close();
-      statement.close();
-
       return groupNames;
     } catch (SQLException e) {
       throw new RuntimeException(e);
@@ -275,15 +319,49 @@ public class Group {
    * @throws RuntimeException if deleting the group fails
    */
   public void deleteGroup(int groupId) {
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("DELETE FROM \"group\" WHERE groupid = ?");
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("DELETE FROM \"group\" WHERE groupid = ?")) {
       statement.setInt(1, groupId);
 
       statement.executeUpdate();
-      statement.close();
+      ChangeNotifier.publish(connection, ChangeType.GROUP, String.valueOf(groupId));
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    } finally {
+      DELETE_GROUP_TIMER.recordSince(start);
+    }
+
+    GroupCatalog.groupDeleted(groupId);
+  }
+
+  /**
+   * Loads all groups from the database.
+   *
+   * @return a list of all groups
+   * @throws RuntimeException if loading the groups fails
+   */
+  public List<Group> loadAllGroups() {
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("SELECT * FROM \"group\"");
+        ResultSet result = statement.executeQuery()) {
+      List<Group> groups = new ArrayList<>();
+
+      while (result.next()) {
+        Group group = new Group(result.getString("name"), result.getString("prefix"),
+            result.getString("description"), result.getInt("weight"));
+        group.groupId = result.getInt("groupId");
+        groups.add(group);
+      }
+
+      return groups;
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      LOAD_ALL_GROUPS_TIMER.recordSince(start);
     }
   }
 }
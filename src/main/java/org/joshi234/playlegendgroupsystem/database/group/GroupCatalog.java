@@ -0,0 +1,172 @@
+package org.joshi234.playlegendgroupsystem.database.group;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import org.joshi234.playlegendgroupsystem.CompletionIndex;
+
+/**
+ * The GroupCatalog class is an immutable snapshot of all groups, indexed by ID and by name. Names
+ * are looked up with their exact case, like the name column, which allows names that only differ
+ * in case. Only tab completion ignores case. The current snapshot is replaced atomically whenever a group is created,
+ * updated or deleted through {@link Group}, so groups can be read from any thread without querying
+ * the database. Edits made outside the plugin are picked up with {@link #reload()}.
+ */
+public final class GroupCatalog {
+
+  private static final AtomicReference<GroupCatalog> current = new AtomicReference<>();
+
+  private final Map<Integer, Group> groupsById;
+  private final Map<String, Group> groupsByName;
+  private final List<String> groupNames;
+  private final CompletionIndex groupNameIndex;
+
+  private GroupCatalog(Collection<Group> groups) {
+    Map<Integer, Group> byId = new HashMap<>();
+    Map<String, Group> byName = new HashMap<>();
+    List<String> names = new ArrayList<>();
+
+    for (Group group : groups) {
+      byId.put(group.getGroupId(), group);
+      byName.put(group.getName(), group);
+      names.add(group.getName());
+    }
+    Collections.sort(names);
+
+    this.groupsById = byId;
+    this.groupsByName = byName;
+    this.groupNames = Collections.unmodifiableList(names);
+    this.groupNameIndex = CompletionIndex.of(names);
+  }
+
+  /**
+   * Loads all groups from the database and replaces the current snapshot.
+   */
+  public static void reload() {
+    current.set(new GroupCatalog(new Group().loadAllGroups()));
+  }
+
+  /**
+   * Retrieves the group with the specified name.
+   *
+   * @param name the name of the group, with its exact case
+   * @return a copy of the group, or {@code null} if no group has this name
+   */
+  public static Group getGroup(String name) {
+    Group group = snapshot().groupsByName.get(name);
+    return group != null ? group.copy() : null;
+  }
+
+  /**
+   * Retrieves the group with the specified ID.
+   *
+   * @param groupId the ID of the group
+   * @return a copy of the group, or {@code null} if no group has this ID
+   */
+  public static Group getGroup(int groupId) {
+    Group group = snapshot().groupsById.get(groupId);
+    return group != null ? group.copy() : null;
+  }
+
+  /**
+   * Retrieves the names of all groups in alphabetical order.
+   *
+   * @return an unmodifiable list of the group names
+   */
+  public static List<String> getGroupNames() {
+    return snapshot().groupNames;
+  }
+
+  /**
+   * Retrieves the names of the groups starting with a prefix, ignoring case.
+   *
+   * @param prefix the prefix the names start with
+   * @param limit  the maximum number of names returned
+   * @return the matching group names in alphabetical order
+   */
+  public static List<String> completeGroupNames(String prefix, int limit) {
+    return snapshot().groupNameIndex.complete(prefix, limit);
+  }
+
+  /**
+   * Adds a group that has been created to the current snapshot.
+   *
+   * @param group the created group
+   */
+  static void groupCreated(Group group) {
+    Group created = group.copy();
+    update(groups -> {
+      groups.put(created.getGroupId(), created);
+      return groups;
+    });
+  }
+
+  /**
+   * Applies a property change of a group to the current snapshot.
+   *
+   * @param key     the key of the changed property
+   * @param value   the new value of the property
+   * @param groupId the ID of the group
+   */
+  static void groupUpdated(String key, String value, int groupId) {
+    update(groups -> {
+      Group group = groups.get(groupId);
+      if (group == null) {
+        return groups;
+      }
+
+      Group updated = group.copy();
+      switch (key) {
+        case "name" -> updated.setName(value);
+        case "prefix" -> updated.setPrefix(value);
+        case "description" -> updated.setDescription(value);
+        case "weight" -> updated.setWeight(Integer.parseInt(value));
+        default -> {
+          return groups;
+        }
+      }
+      groups.put(groupId, updated);
+      return groups;
+    });
+  }
+
+  /**
+   * Removes a group that has been deleted from the current snapshot.
+   *
+   * @param groupId the ID of the deleted group
+   */
+  static void groupDeleted(int groupId) {
+    update(groups -> {
+      groups.remove(groupId);
+      return groups;
+    });
+  }
+
+  private static GroupCatalog snapshot() {
+    GroupCatalog catalog = current.get();
+    if (catalog == null) {
+      synchronized (current) {
+        catalog = current.get();
+        if (catalog == null) {
+          reload();
+          catalog = current.get();
+        }
+      }
+    }
+    return catalog;
+  }
+
+  /**
+   * Builds a new snapshot from a modified copy of the current groups. Nothing happens while no
+   * snapshot has been loaded, as the next load reads the change from the database.
+   */
+  private static void update(UnaryOperator<Map<Integer, Group>> change) {
+    current.updateAndGet(catalog -> catalog == null ? null
+        : new GroupCatalog(change.apply(new HashMap<>(catalog.groupsById)).values()));
+  }
+}
@@ -0,0 +1,93 @@
+package org.joshi234.playlegendgroupsystem.database.group;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+
+/**
+ * The GroupRepository class provides asynchronous access to groups. Reads are served from the
+ * {@link GroupCatalog} and return completed futures. Every write runs on a database thread and the
+ * returned futures complete there as well.
+ */
+public class GroupRepository {
+
+  /**
+   * Loads the group with the specified name.
+   *
+   * @param name the name of the group to load
+   * @return a future completed with the group, or completed exceptionally if no group is found
+   */
+  public static CompletableFuture<Group> loadByNameAsync(String name) {
+    return completeWith(GroupCatalog.getGroup(name),
+        "No result found in group for groupname: " + name);
+  }
+
+  /**
+   * Loads the group with the specified ID.
+   *
+   * @param groupId the ID of the group to load
+   * @return a future completed with the group, or completed exceptionally if no group is found
+   */
+  public static CompletableFuture<Group> loadAsync(int groupId) {
+    return completeWith(GroupCatalog.getGroup(groupId),
+        "No result found in group for groupId: " + groupId);
+  }
+
+  /**
+   * Creates the specified group.
+   *
+   * @param group the group to create
+   * @return a future completed with the created group
+   */
+  public static CompletableFuture<Group> createAsync(Group group) {
+    return DatabaseExecutor.supply(() -> {
+      group.createGroup();
+      return group;
+    });
+  }
+
+  /**
+   * Updates a specific property of a group.
+   *
+   * @param key     the key of the property to update
+   * @param value   the new value for the property
+   * @param groupId the ID of the group to update
+   * @return a future completed once the group is updated
+   */
+  public static CompletableFuture<Void> updateAsync(String key, String value, int groupId) {
+    return DatabaseExecutor.run(() -> new Group().updateGroup(key, value, groupId));
+  }
+
+  /**
+   * Deletes the group with the specified ID.
+   *
+   * @param groupId the ID of the group to delete
+   * @return a future completed once the group is deleted
+   */
+  public static CompletableFuture<Void> deleteAsync(int groupId) {
+    return DatabaseExecutor.run(() -> new Group().deleteGroup(groupId));
+  }
+
+  /**
+   * Retrieves the names of all groups.
+   *
+   * @return a future completed with the group names
+   */
+  public static CompletableFuture<List<String>> getGroupNamesAsync() {
+    return CompletableFuture.completedFuture(GroupCatalog.getGroupNames());
+  }
+
+  /**
+   * Reloads all groups from the database, to pick up edits made outside the plugin.
+   *
+   * @return a future completed once the groups are reloaded
+   */
+  public static CompletableFuture<Void> reloadAsync() {
+    return DatabaseExecutor.run(GroupCatalog::reload);
+  }
+
+  private static CompletableFuture<Group> completeWith(Group group, String missingMessage) {
+    return group != null ? CompletableFuture.completedFuture(group)
+        : CompletableFuture.failedFuture(new RuntimeException(missingMessage));
+  }
+}
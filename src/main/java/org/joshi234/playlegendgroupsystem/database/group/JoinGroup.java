@@ -1,14 +1,28 @@
 package org.joshi234.playlegendgroupsystem.database.group;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.joshi234.playlegendgroupsystem.database.ChangeNotifier;
+import org.joshi234.playlegendgroupsystem.database.ChangeType;
 import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.NamedQuery;
+import org.joshi234.playlegendgroupsystem.metrics.LatencyHistogram;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
 
 /**
  * The JoinGroup class represents the joining and management of groups for players in the PlayLegend
@@ -17,15 +31,107 @@ import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
  */
 public class JoinGroup {
 
-  private static Map<String, String> prefixCache;
+  private static final LatencyHistogram GET_PLAYER_GROUPS_TIMER =
+      Metrics.daoTimer("JoinGroup.getPlayerGroups");
+  private static final LatencyHistogram GET_EXPIRING_JOIN_GROUPS_TIMER =
+      Metrics.daoTimer("JoinGroup.getExpiringJoinGroups");
+  private static final LatencyHistogram DELETE_EXPIRED_JOIN_GROUPS_TIMER =
+      Metrics.daoTimer("JoinGroup.deleteExpiredJoinGroups");
+  private static final LatencyHistogram JOIN_GROUP_TIMER = Metrics.daoTimer("JoinGroup.joinGroup");
+  private static final LatencyHistogram DELETE_JOIN_GROUPS_TIMER =
+      Metrics.daoTimer("JoinGroup.deleteJoinGroups");
+  private static final LatencyHistogram RELOAD_PREFIXES_TIMER =
+      Metrics.daoTimer("JoinGroup.reloadPrefixes");
+  private static final LatencyHistogram LOAD_PREFIX_FROM_DATABASE_TIMER =
+      Metrics.daoTimer("JoinGroup.loadPrefixFromDatabase");
+  private static final LatencyHistogram DELETE_JOIN_GROUP_TIMER =
+      Metrics.daoTimer("JoinGroup.deleteJoinGroup");
+  private static final LatencyHistogram JOIN_GROUPS_TIMER =
+      Metrics.daoTimer("JoinGroup.joinGroups");
+  private static final LatencyHistogram GET_PREFIX_TIMER = Metrics.daoTimer("JoinGroup.getPrefix");
+  private static final long DEFAULT_PREFIX_CACHE_SIZE = 10000;
+  private static final NamedQuery PLAYER_GROUPS = NamedQuery.define("player-groups",
+      "SELECT g.name,g.prefix,g.description,j.groupid,g.weight FROM joingroup j "
+          + "JOIN \"group\" g on j.groupid = g.groupid WHERE j.uuid = ?");
+  private static final NamedQuery JOIN_GROUP = NamedQuery.define("join-group",
+      "INSERT INTO joingroup (uuid,groupid,joinuntil) VALUES(?,?,?)");
+  private static final NamedQuery PREFIX_BY_PLAYER = NamedQuery.define("prefix-by-player",
+      "WITH expired AS (DELETE FROM joingroup "
+          + "WHERE uuid = ? AND joinuntil <= LOCALTIMESTAMP RETURNING groupid)\n"
+          + "SELECT prefix,min(j.joinuntil) OVER () AS nextexpiry from \"group\" "
+          + "JOIN joingroup j on \"group\".groupid = j.groupid\n"
+          + "WHERE j.uuid = ? AND (j.joinuntil IS NULL OR j.joinuntil > LOCALTIMESTAMP) "
+          + "ORDER BY \"group\".weight ASC LIMIT 1");
+  private static final Cache<String, CachedPrefix> prefixCache = Caffeine.newBuilder()
+      .maximumSize(DEFAULT_PREFIX_CACHE_SIZE)
+      .expireAfter(new PrefixExpiry())
+      .recordStats()
+      .build();
   private String uuid;
   private Timestamp joinUntil;
   private int groupId;
 
-  public JoinGroup() {
-    if (prefixCache == null) {
-      prefixCache = new HashMap<>();
-    }
+  static {
+    Metrics.registerCache("prefix", () -> prefixCache.stats().hitCount(),
+        () -> prefixCache.stats().missCount());
+  }
+
+  /**
+   * Sets the maximum number of players whose prefix is kept in the prefix cache.
+   *
+   * @param maximumSize the maximum number of cached prefixes
+   */
+  public static void setPrefixCacheSize(long maximumSize) {
+    prefixCache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximumSize));
+  }
+
+  /**
+   * Retrieves the cached prefix of a player without querying the database, so it may be called on
+   * the server thread.
+   *
+   * @param uuid the player's UUID
+   * @return the cached prefix, or {@code null} if the prefix is not cached or has expired
+   */
+  public static String getCachedPrefix(String uuid) {
+    CachedPrefix cached = prefixCache.getIfPresent(uuid);
+    return cached == null ? null : cached.prefix();
+  }
+
+  /**
+   * Removes the cached prefix of a player, so it is loaded from the database on the next access.
+   *
+   * @param uuid the player's UUID
+   */
+  public static void invalidatePrefix(String uuid) {
+    prefixCache.invalidate(uuid);
+  }
+
+  /**
+   * Removes every cached prefix, so they are loaded from the database on the next access.
+   */
+  public static void invalidateAllPrefixes() {
+    prefixCache.invalidateAll();
+  }
+
+  /**
+   * Caches a prefix that was loaded together with other player data.
+   *
+   * @param uuid       the player's UUID
+   * @param prefix     the prefix of the player's highest group
+   * @param nextExpiry the earliest join until timestamp of the player's groups, or {@code null}
+   */
+  static void cachePrefix(String uuid, String prefix, Timestamp nextExpiry) {
+    prefixCache.put(uuid,
+        new CachedPrefix(prefix, nextExpiry == null ? Long.MAX_VALUE : nextExpiry.getTime()));
+  }
+
+  /**
+   * Retrieves the hit, miss and eviction statistics of the prefix cache.
+   *
+   * @return the prefix cache statistics
+   */
+  public static CacheStats getPrefixCacheStats() {
+    return prefixCache.stats();
   }
 
   /**
@@ -89,59 +195,258 @@ public class JoinGroup {
    * @return a list of Group objects representing the player's groups
    */
   public List<Group> getPlayerGroups(String uuid) {
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection().prepareStatement(
-          "SELECT g.name,g.prefix,g.description,j.groupid,g.weight FROM joingroup j " +
-              "JOIN " + '"' + "group" + '"' + " g on j.groupid = g.groupid WHERE j.uuid = ?");
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = PLAYER_GROUPS.prepare(connection)) {
       List<Group> groupList = new ArrayList<>();
 
       statement.setString(1, uuid);
 
-      ResultSet result = statement.executeQuery();
+      try (ResultSet result = statement.executeQuery()) {
+        while (result.next()) {
+          var group = new Group(result.getString("name"), result.getString("prefix"),
+              result.getString("description"), result.getInt("weight"));
+          groupList.add(group);
+        }
+      }
+
+      return groupList;
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    } finally {
+      GET_PLAYER_GROUPS_TIMER.recordSince(start);
+    }
+  }
+
+  /**
+   * Retrieves the group entries of a player that have a join until timestamp.
+   *
+   * @param uuid the player's UUID
+   * @return a list of JoinGroup objects ordered by their join until timestamp
+   */
+  public List<JoinGroup> getExpiringJoinGroups(String uuid) {
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "SELECT groupid,joinuntil FROM joingroup "
+                + "WHERE uuid = ? AND joinuntil IS NOT NULL ORDER BY joinuntil")) {
+      List<JoinGroup> joinGroups = new ArrayList<>();
+
+      statement.setString(1, uuid);
+
+      try (ResultSet result = statement.executeQuery()) {
+        while (result.next()) {
+          JoinGroup joinGroup = new JoinGroup();
+          joinGroup.setUuid(uuid);
+          joinGroup.setGroupId(result.getInt("groupid"));
+          joinGroup.setJoinUntil(result.getTimestamp("joinuntil"));
+          joinGroups.add(joinGroup);
+        }
+      }
+
+      return joinGroups;
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    } finally {
+      GET_EXPIRING_JOIN_GROUPS_TIMER.recordSince(start);
+    }
+  }
 
-      while (result.next()) {
-        var group = new Group(result.getString("name"), result.getString("prefix"),
-            result.getString("description"), result.getInt("weight"));
-        groupList.add(group);
+  /**
+   * Retrieves the group entries of several players that have a join until timestamp in a single
+   * statement.
+   *
+   * @param uuids the UUIDs of the players
+   * @return a list of JoinGroup objects ordered by their join until timestamp
+   */
+  public List<JoinGroup> getExpiringJoinGroups(Collection<String> uuids) {
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "SELECT uuid,groupid,joinuntil FROM joingroup "
+                + "WHERE uuid = ANY(?) AND joinuntil IS NOT NULL ORDER BY joinuntil")) {
+      List<JoinGroup> joinGroups = new ArrayList<>();
+
+      statement.setArray(1, connection.createArrayOf("varchar", uuids.toArray()));
+
+      try (ResultSet result = statement.executeQuery()) {
+        while (result.next()) {
+          JoinGroup joinGroup = new JoinGroup();
+          joinGroup.setUuid(result.getString("uuid"));
+          joinGroup.setGroupId(result.getInt("groupid"));
+          joinGroup.setJoinUntil(result.getTimestamp("joinuntil"));
+          joinGroups.add(joinGroup);
+        }
       }
 
-      result.close();
-      statement.close();
+      return joinGroups;
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    } finally {
+      GET_EXPIRING_JOIN_GROUPS_TIMER.recordSince(start);
+    }
+  }
+
+  /**
+   * Deletes all expired group entries in a single statement and removes the cached prefix of every
+   * affected player.
+   *
+   * @param uuids the players to check, or {@code null} to check every player
+   * @return the UUIDs of the players that lost at least one group
+   */
+  public Set<String> deleteExpiredJoinGroups(Collection<String> uuids) {
+    long start = System.nanoTime();
+    String sql = "DELETE FROM joingroup WHERE joinuntil <= LOCALTIMESTAMP"
+        + (uuids == null ? "" : " AND uuid = ANY(?)") + " RETURNING uuid";
 
-      return groupList;
+    Set<String> affectedPlayers = new HashSet<>();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql)) {
+      if (uuids != null) {
+        statement.setArray(1, connection.createArrayOf("varchar", uuids.toArray()));
+      }
+
+      try (ResultSet result = statement.executeQuery()) {
+        while (result.next()) {
+          affectedPlayers.add(result.getString("uuid"));
+        }
+      }
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      DELETE_EXPIRED_JOIN_GROUPS_TIMER.recordSince(start);
+    }
+
+    for (String affectedPlayer : affectedPlayers) {
+      prefixCache.invalidate(affectedPlayer);
     }
+    return affectedPlayers;
   }
 
   /**
    * Joins the player to the specified group.
    */
   public void joinGroup() {
-    try {
-      PreparedStatement statement;
-      if (this.joinUntil != null) {
-        statement = DatabaseManager.getConnection()
-            .prepareStatement("INSERT INTO joingroup (uuid,groupid,joinuntil) VALUES(?,?,?) ");
-        statement.setString(1, this.uuid);
-        statement.setInt(2, this.groupId);
-        statement.setTimestamp(3, this.joinUntil);
-      } else {
-        statement = DatabaseManager.getConnection()
-            .prepareStatement("INSERT INTO joingroup (uuid,groupid) VALUES(?,?) ");
-        statement.setString(1, this.uuid);
-        statement.setInt(2, this.groupId);
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = JOIN_GROUP.prepare(connection)) {
+      // A permanent membership has no join until timestamp
+      statement.setString(1, this.uuid);
+      statement.setInt(2, this.groupId);
+      statement.setTimestamp(3, this.joinUntil);
+      statement.executeUpdate();
+      ChangeNotifier.publish(connection, ChangeType.MEMBERSHIP, this.uuid);
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    } finally {
+      JOIN_GROUP_TIMER.recordSince(start);
+    }
+
+    prefixCache.put(this.uuid, loadPrefixFromDatabase(this.uuid));
+  }
+
+  /**
+   * Joins several players to the same group in a single statement and reloads their prefixes
+   * together. Players that already belong to the group keep their current membership.
+   *
+   * @param uuids     the UUIDs of the players
+   * @param groupId   the group ID
+   * @param joinUntil the join until timestamp, or {@code null} for a permanent membership
+   * @return the players that joined the group and the new prefix of every player
+   */
+  public JoinResult joinGroups(Collection<String> uuids, int groupId, Timestamp joinUntil) {
+    long start = System.nanoTime();
+    Set<String> joinedPlayers = new HashSet<>();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "INSERT INTO joingroup (uuid,groupid,joinuntil) "
+                + "SELECT uuid,?,? FROM unnest(?::varchar[]) AS players(uuid) "
+                + "ON CONFLICT DO NOTHING RETURNING uuid")) {
+      statement.setInt(1, groupId);
+      statement.setTimestamp(2, joinUntil);
+      statement.setArray(3, connection.createArrayOf("varchar", uuids.toArray()));
+
+      try (ResultSet result = statement.executeQuery()) {
+        while (result.next()) {
+          joinedPlayers.add(result.getString("uuid"));
+        }
       }
+      ChangeNotifier.publish(connection, ChangeType.MEMBERSHIP, uuids);
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    } finally {
+      JOIN_GROUPS_TIMER.recordSince(start);
+    }
 
+    return new JoinResult(joinedPlayers, reloadPrefixes(uuids));
+  }
+
+  /**
+   * Removes several players from the same group in a single statement and reloads their prefixes
+   * together.
+   *
+   * @param uuids   the UUIDs of the players
+   * @param groupId the group ID
+   * @return the new prefix of every player
+   */
+  public Map<String, String> deleteJoinGroups(Collection<String> uuids, int groupId) {
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("DELETE FROM joingroup WHERE groupid = ? AND uuid = ANY(?)")) {
+      statement.setInt(1, groupId);
+      statement.setArray(2, connection.createArrayOf("varchar", uuids.toArray()));
       statement.executeUpdate();
-      if (prefixCache.containsKey(this.uuid)) {
-        prefixCache.replace(this.uuid, loadPrefixFromDatabase(this.uuid));
-      } else {
-        prefixCache.put(this.uuid, loadPrefixFromDatabase(this.uuid));
+      ChangeNotifier.publish(connection, ChangeType.MEMBERSHIP, uuids);
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    } finally {
+      DELETE_JOIN_GROUPS_TIMER.recordSince(start);
+    }
+
+    return reloadPrefixes(uuids);
+  }
+
+  /**
+   * Loads the prefixes of several players in a single statement and replaces their cached
+   * prefixes.
+   *
+   * @param uuids the UUIDs of the players
+   * @return the prefix of every player
+   */
+  public Map<String, String> reloadPrefixes(Collection<String> uuids) {
+    long start = System.nanoTime();
+    Map<String, String> prefixes = new HashMap<>();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "SELECT DISTINCT ON (j.uuid) j.uuid,g.prefix,"
+                + "min(j.joinuntil) OVER (PARTITION BY j.uuid) AS nextexpiry "
+                + "FROM joingroup j JOIN \"group\" g on g.groupid = j.groupid\n"
+                + "WHERE j.uuid = ANY(?) AND (j.joinuntil IS NULL OR j.joinuntil > LOCALTIMESTAMP) "
+                + "ORDER BY j.uuid,g.weight ASC")) {
+      statement.setArray(1, connection.createArrayOf("varchar", uuids.toArray()));
+
+      try (ResultSet result = statement.executeQuery()) {
+        while (result.next()) {
+          String uuid = result.getString("uuid");
+          String prefix = result.getString("prefix");
+          cachePrefix(uuid, prefix, result.getTimestamp("nextexpiry"));
+          prefixes.put(uuid, prefix);
+        }
       }
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      RELOAD_PREFIXES_TIMER.recordSince(start);
+    }
+
+    for (String uuid : uuids) {
+      if (!prefixes.containsKey(uuid)) {
+        cachePrefix(uuid, "&4none", null);
+        prefixes.put(uuid, "&4none");
+      }
     }
+    return prefixes;
   }
 
   /**
@@ -151,16 +456,11 @@ public class JoinGroup {
    * @return the prefix associated with the UUID
    */
   public String getPrefix(String uuid) {
-    if (prefixCache == null) {
-      prefixCache = new HashMap<>();
-    }
-
-    if (prefixCache.containsKey(uuid)) {
-      return prefixCache.get(uuid);
-    } else {
-      String prefix = loadPrefixFromDatabase(uuid);
-      prefixCache.put(uuid, prefix);
-      return prefix;
+    long start = System.nanoTime();
+    try {
+      return prefixCache.get(uuid, this::loadPrefixFromDatabase).prefix();
+    } finally {
+      GET_PREFIX_TIMER.recordSince(start);
     }
   }
 
@@ -173,68 +473,40 @@ public class JoinGroup {
    * @return the prefix associated with the UUID
    */
   public String getPrefix(String uuid, boolean playerJoined) {
-    if (prefixCache != null && playerJoined) {
-      prefixCache.remove(uuid);
+    if (playerJoined) {
+      prefixCache.invalidate(uuid);
     }
     return getPrefix(uuid);
   }
 
   /**
-   * Loads the prefix associated with the specified UUID from the database.
+   * Loads the prefix associated with the specified UUID from the database, together with the
+   * earliest join until timestamp of the player's groups. Expired group entries of the player are
+   * removed in the same statement.
    *
    * @param uuid the player's UUID
    * @return the prefix associated with the UUID
    */
-  private String loadPrefixFromDatabase(String uuid) {
-    try {
-      checkIfGroupsValid(uuid);
-      PreparedStatement statement =
-          DatabaseManager.getConnection()
-              .prepareStatement(
-                  "SELECT prefix,joinuntil from \"group\" "
-                      + "JOIN joingroup j on \"group\".groupid = j.groupid\n"
-                      + "WHERE j.uuid = ? ORDER BY \"group\".weight ASC");
+  private CachedPrefix loadPrefixFromDatabase(String uuid) {
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = PREFIX_BY_PLAYER.prepare(connection)) {
       statement.setString(1, uuid);
-      ResultSet result = statement.executeQuery();
-
-      if (result.next()) {
-        String prefix = result.getString("prefix");
-        result.close();
-        statement.close();
-        return prefix;
-      } else {
-        return "&4none";
-      }
-    } catch (SQLException e) {
-      throw new RuntimeException(e);
-    }
-  }
+      statement.setString(2, uuid);
 
-  /**
-   * Checks if the player's groups are valid based on the join until timestamp. Removes the invalid
-   * group entries from the database.
-   *
-   * @param uuid the player's UUID
-   */
-  private void checkIfGroupsValid(String uuid) {
-    try {
-      PreparedStatement statement =
-          DatabaseManager.getConnection()
-              .prepareStatement(
-                  "SELECT groupid,joinuntil from joingroup WHERE uuid = ? ");
-      statement.setString(1, uuid);
-      ResultSet result = statement.executeQuery();
-
-      while (result.next()) {
-        Timestamp joinUntil = result.getTimestamp("joinuntil");
-        if (joinUntil != null) {
-          if (!joinUntil.after(new Timestamp(System.currentTimeMillis()))) {
-            deleteJoinGroup(uuid, result.getInt("groupid"));
-          }
+      try (ResultSet result = statement.executeQuery()) {
+        if (result.next()) {
+          Timestamp nextExpiry = result.getTimestamp("nextexpiry");
+          return new CachedPrefix(result.getString("prefix"),
+              nextExpiry == null ? Long.MAX_VALUE : nextExpiry.getTime());
+        } else {
+          return new CachedPrefix("&4none", Long.MAX_VALUE);
         }
       }
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      LOAD_PREFIX_FROM_DATABASE_TIMER.recordSince(start);
     }
   }
 
@@ -245,21 +517,21 @@ public class JoinGroup {
    * @param groupId the group ID
    */
   public void deleteJoinGroup(String uuid, int groupId) {
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("DELETE FROM joingroup WHERE uuid = ? AND groupid = ?");
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("DELETE FROM joingroup WHERE uuid = ? AND groupid = ?")) {
       statement.setString(1, uuid);
       statement.setInt(2, groupId);
       statement.executeUpdate();
-      statement.close();
-      if (prefixCache.containsKey(uuid)) {
-        prefixCache.replace(uuid, loadPrefixFromDatabase(this.uuid));
-      } else {
-        prefixCache.put(uuid, loadPrefixFromDatabase(uuid));
-      }
+      ChangeNotifier.publish(connection, ChangeType.MEMBERSHIP, uuid);
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      DELETE_JOIN_GROUP_TIMER.recordSince(start);
     }
+
+    prefixCache.put(uuid, loadPrefixFromDatabase(uuid));
   }
 
   /**
@@ -275,4 +547,43 @@ public class JoinGroup {
     setUuid(uuid);
     joinGroup();
   }
+
+  /**
+   * A cached prefix together with the time its first group membership runs out.
+   *
+   * @param prefix          the prefix of the player's highest group
+   * @param expiresAtMillis the earliest join until timestamp in epoch milliseconds, or
+   *                        {@link Long#MAX_VALUE} if no membership runs out
+   */
+  private record CachedPrefix(String prefix, long expiresAtMillis) {
+
+  }
+
+  /**
+   * Lets a cached prefix expire exactly when the first of the player's memberships runs out, so an
+   * expired group is never shown.
+   */
+  private static class PrefixExpiry implements Expiry<String, CachedPrefix> {
+
+    @Override
+    public long expireAfterCreate(String uuid, CachedPrefix value, long currentTime) {
+      if (value.expiresAtMillis() == Long.MAX_VALUE) {
+        return Long.MAX_VALUE;
+      }
+      long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+    }
+
+    @Override
+    public long expireAfterUpdate(String uuid, CachedPrefix value, long currentTime,
+        long currentDuration) {
+      return expireAfterCreate(uuid, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String uuid, CachedPrefix value, long currentTime,
+        long currentDuration) {
+      return currentDuration;
+    }
+  }
 }
@@ -0,0 +1,146 @@
+package org.joshi234.playlegendgroupsystem.database.group;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+
+/**
+ * The JoinGroupRepository class provides asynchronous access to group memberships and prefixes.
+ * Every operation runs on a database thread and the returned futures complete there as well.
+ */
+public class JoinGroupRepository {
+
+  /**
+   * Joins a player to a group.
+   *
+   * @param joinGroup the membership to create
+   * @return a future completed with the player's prefix after joining
+   */
+  public static CompletableFuture<String> joinAsync(JoinGroup joinGroup) {
+    return DatabaseExecutor.supply(() -> {
+      joinGroup.joinGroup();
+      return joinGroup.getPrefix(joinGroup.getUuid());
+    });
+  }
+
+  /**
+   * Removes a player from a group.
+   *
+   * @param uuid    the player's UUID
+   * @param groupId the group ID
+   * @return a future completed with the player's prefix after leaving
+   */
+  public static CompletableFuture<String> leaveAsync(String uuid, int groupId) {
+    return DatabaseExecutor.supply(() -> {
+      JoinGroup joinGroup = new JoinGroup();
+      joinGroup.deleteJoinGroup(uuid, groupId);
+      return joinGroup.getPrefix(uuid);
+    });
+  }
+
+  /**
+   * Joins several players to the same group at once.
+   *
+   * @param uuids     the UUIDs of the players
+   * @param groupId   the group ID
+   * @param joinUntil the join until timestamp, or {@code null} for a permanent membership
+   * @return a future completed with the players that joined the group and the new prefix of every
+   *     player
+   */
+  public static CompletableFuture<JoinResult> joinAllAsync(Collection<String> uuids, int groupId,
+      Timestamp joinUntil) {
+    return DatabaseExecutor.supply(() -> new JoinGroup().joinGroups(uuids, groupId, joinUntil));
+  }
+
+  /**
+   * Removes several players from the same group at once.
+   *
+   * @param uuids   the UUIDs of the players
+   * @param groupId the group ID
+   * @return a future completed with the new prefix of every player
+   */
+  public static CompletableFuture<Map<String, String>> leaveAllAsync(Collection<String> uuids,
+      int groupId) {
+    return DatabaseExecutor.supply(() -> new JoinGroup().deleteJoinGroups(uuids, groupId));
+  }
+
+  /**
+   * Retrieves the groups a player belongs to.
+   *
+   * @param uuid the player's UUID
+   * @return a future completed with the player's groups
+   */
+  public static CompletableFuture<List<Group>> getPlayerGroupsAsync(String uuid) {
+    return DatabaseExecutor.supply(() -> new JoinGroup().getPlayerGroups(uuid));
+  }
+
+  /**
+   * Retrieves the prefix of a player.
+   *
+   * @param uuid         the player's UUID
+   * @param playerJoined indicates whether the cached prefix should be reloaded
+   * @return a future completed with the player's prefix
+   */
+  public static CompletableFuture<String> getPrefixAsync(String uuid, boolean playerJoined) {
+    return DatabaseExecutor.supply(() -> new JoinGroup().getPrefix(uuid, playerJoined));
+  }
+
+  /**
+   * Reloads the prefixes of several players, replacing their cached prefixes.
+   *
+   * @param uuids the UUIDs of the players
+   * @return a future completed with the prefix of every player
+   */
+  public static CompletableFuture<Map<String, String>> reloadPrefixesAsync(
+      Collection<String> uuids) {
+    return DatabaseExecutor.supply(() -> new JoinGroup().reloadPrefixes(uuids));
+  }
+
+  /**
+   * Retrieves the group entries of several players that have a join until timestamp.
+   *
+   * @param uuids the UUIDs of the players
+   * @return a future completed with the entries, ordered by their join until timestamp
+   */
+  public static CompletableFuture<List<JoinGroup>> getExpiringJoinGroupsAsync(
+      Collection<String> uuids) {
+    return DatabaseExecutor.supply(() -> new JoinGroup().getExpiringJoinGroups(uuids));
+  }
+
+  /**
+   * Deletes the expired group entries of several players and reloads their prefixes together. The
+   * prefix of every specified player is reloaded, even if none of their entries were deleted here,
+   * since loading a prefix deletes the expired entries of the player as well.
+   *
+   * @param uuids the UUIDs of the players
+   * @return a future completed with the new prefix of every specified player
+   */
+  public static CompletableFuture<Map<String, String>> expireAsync(Collection<String> uuids) {
+    return DatabaseExecutor.supply(() -> {
+      JoinGroup joinGroup = new JoinGroup();
+      joinGroup.deleteExpiredJoinGroups(uuids);
+      return joinGroup.reloadPrefixes(uuids);
+    });
+  }
+
+  /**
+   * Deletes the expired group entries of every player and reloads the prefixes of the online
+   * players that lost a group. The prefixes of offline players are not loaded into the cache.
+   *
+   * @param onlinePlayers the UUIDs of the online players
+   * @return a future completed with the new prefix of every online player that lost a group
+   */
+  public static CompletableFuture<Map<String, String>> expireAllAsync(
+      Collection<String> onlinePlayers) {
+    return DatabaseExecutor.supply(() -> {
+      JoinGroup joinGroup = new JoinGroup();
+      Set<String> affectedPlayers = joinGroup.deleteExpiredJoinGroups(null);
+      affectedPlayers.retainAll(onlinePlayers);
+      return affectedPlayers.isEmpty() ? Map.of() : joinGroup.reloadPrefixes(affectedPlayers);
+    });
+  }
+}
@@ -0,0 +1,14 @@
+package org.joshi234.playlegendgroupsystem.database.group;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of joining several players to the same group at once.
+ *
+ * @param joinedPlayers the UUIDs of the players that did not belong to the group before
+ * @param prefixes      the new prefix of every player
+ */
+public record JoinResult(Set<String> joinedPlayers, Map<String, String> prefixes) {
+
+}
@@ -5,22 +5,46 @@
  */
 package org.joshi234.playlegendgroupsystem.database.group;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.joshi234.playlegendgroupsystem.database.ChangeNotifier;
+import org.joshi234.playlegendgroupsystem.database.ChangeType;
 import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.NamedQuery;
+import org.joshi234.playlegendgroupsystem.metrics.LatencyHistogram;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
 
 public class Language {
 
-  private static Map<String, String> languageCache;
+  private static final LatencyHistogram GET_AVAILABLE_LANGUAGES_TIMER =
+      Metrics.daoTimer("Language.getAvailableLanguages");
+  private static final LatencyHistogram LOAD_LANGUAGE_BY_PLAYER_FROM_DATABASE_TIMER =
+      Metrics.daoTimer("Language.loadLanguageByPlayerFromDatabase");
+  private static final LatencyHistogram SET_PLAYER_LANGUAGE_TIMER =
+      Metrics.daoTimer("Language.setPlayerLanguage");
+  // Cached for players without a language preference, as the cache cannot hold null
+  private static final String NO_LANGUAGE = "";
+  private static final Map<String, String> languageCache = new ConcurrentHashMap<>();
+  private static final LongAdder cacheHits = new LongAdder();
+  private static final LongAdder cacheMisses = new LongAdder();
+  private static final NamedQuery LANGUAGE_BY_PLAYER = NamedQuery.define("language-by-player",
+      "SELECT * FROM language "
+          + "JOIN player p ON p.languageId = language.languageId AND p.uuid = ?");
   private int languageId;
   private String name;
   private String code;
 
+  static {
+    Metrics.registerCache("language", cacheHits::sum, cacheMisses::sum);
+  }
+
   /**
    * Get the language code.
    *
@@ -81,11 +105,12 @@ public class Language {
    * @return A list of Language objects representing the available languages.
    */
   public List<Language> getAvailableLanguages() {
-    try {
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("SELECT * FROM language");
+        ResultSet result = statement.executeQuery()) {
       List<Language> languages = new ArrayList<>();
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("SELECT * FROM language");
-      ResultSet result = statement.executeQuery();
       while (result.next()) {
         Language language = new Language();
         language.setCode(result.getString("code"));
@@ -96,46 +121,70 @@ public class Language {
       return languages;
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      GET_AVAILABLE_LANGUAGES_TIMER.recordSince(start);
     }
   }
 
   /**
-   * Load the language preference for the specified player.
+   * Stores the language preference of a player that has been loaded together with other player
+   * data, so it does not have to be queried separately.
+   *
+   * @param uuid The UUID of the player.
+   * @param code The language code of the player, or {@code null} if the player has none.
+   */
+  public static void cacheLanguage(String uuid, String code) {
+    languageCache.put(uuid, code != null ? code : NO_LANGUAGE);
+  }
+
+  /**
+   * Removes the cached language preference of a player who left the server.
    *
    * @param uuid The UUID of the player.
-   * @return The language code for the player's language preference.
+   */
+  public static void evictLanguage(String uuid) {
+    languageCache.remove(uuid);
+  }
+
+  /**
+   * Load the language preference for the specified player. The preference is only queried if it
+   * is not cached yet, which includes players without a preference.
+   *
+   * @param uuid The UUID of the player.
+   * @return The language code for the player's language preference, or {@code null} if the player
+   *     has none.
    */
   public String loadLanguageByPlayer(String uuid) {
-    if (languageCache == null) {
-      languageCache = new HashMap<>();
+    String code = languageCache.get(uuid);
+    if (code != null) {
+      cacheHits.increment();
+      return code.equals(NO_LANGUAGE) ? null : code;
     }
 
-    if (languageCache.containsKey(uuid)) {
-      return languageCache.get(uuid);
-    } else {
-      String code = loadLanguageByPlayerFromDatabase(uuid);
-      languageCache.put(uuid, code);
-      return getCode();
-    }
+    cacheMisses.increment();
+    code = loadLanguageByPlayerFromDatabase(uuid);
+    cacheLanguage(uuid, code);
+    return code;
   }
 
   /**
    * Load the language preference for the specified player from the database.
    *
    * @param uuid The UUID of the player.
-   * @return The language code for the player's language preference.
+   * @return The language code for the player's language preference, or {@code null} if the player
+   *     has none.
    */
   private String loadLanguageByPlayerFromDatabase(String uuid) {
-    try {
-      List<Language> languages = new ArrayList<>();
-
-      PreparedStatement statement = DatabaseManager.getConnection().prepareStatement(
-          "SELECT * FROM language JOIN player p ON p.languageId = language.languageId AND p.uuid = ?");
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = LANGUAGE_BY_PLAYER.prepare(connection)) {
       statement.setString(1, uuid);
 
-      ResultSet result = statement.executeQuery();
-
-      if (result.next()) {
+      try (ResultSet result = statement.executeQuery()) {
+        if (!result.next()) {
+          // Not the code of a player loaded before with the same instance
+          return null;
+        }
         setCode(result.getString("code"));
         setLanguageId(result.getInt("languageId"));
         setName(result.getString("name"));
@@ -144,29 +193,36 @@ public class Language {
       return getCode();
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      LOAD_LANGUAGE_BY_PLAYER_FROM_DATABASE_TIMER.recordSince(start);
     }
   }
 
   /**
-   * Set the language preference for the specified player in the database.
+   * Set the language preference for the specified player in the database. The cached preference is
+   * updated in the same statement.
    *
    * @param uuid The UUID of the player.
    * @param id   The ID of the language preference.
    */
   public void setPlayerLanguage(String uuid, int id) {
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("UPDATE player SET languageid = ? WHERE uuid = ?");
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "WITH updated AS (UPDATE player SET languageid = ? WHERE uuid = ? "
+                + "RETURNING languageid) SELECT code FROM language "
+                + "JOIN updated ON updated.languageid = language.languageid")) {
       statement.setInt(1, id);
       statement.setString(2, uuid);
 
-      statement.executeUpdate();
-
-      statement.close();
-
-      languageCache.replace(uuid, loadLanguageByPlayerFromDatabase(uuid));
+      try (ResultSet result = statement.executeQuery()) {
+        cacheLanguage(uuid, result.next() ? result.getString("code") : null);
+      }
+      ChangeNotifier.publish(connection, ChangeType.LANGUAGE, uuid);
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      SET_PLAYER_LANGUAGE_TIMER.recordSince(start);
     }
   }
 }
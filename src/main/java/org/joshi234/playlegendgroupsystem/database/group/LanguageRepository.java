@@ -0,0 +1,32 @@
+package org.joshi234.playlegendgroupsystem.database.group;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+
+/**
+ * The LanguageRepository class provides asynchronous access to languages and language preferences.
+ * Every operation runs on a database thread and the returned futures complete there as well.
+ */
+public class LanguageRepository {
+
+  /**
+   * Retrieves all available languages.
+   *
+   * @return a future completed with the available languages
+   */
+  public static CompletableFuture<List<Language>> getAvailableLanguagesAsync() {
+    return DatabaseExecutor.supply(() -> new Language().getAvailableLanguages());
+  }
+
+  /**
+   * Sets the language preference of a player.
+   *
+   * @param uuid The UUID of the player.
+   * @param id   The ID of the language preference.
+   * @return a future completed once the preference is stored
+   */
+  public static CompletableFuture<Void> setPlayerLanguageAsync(String uuid, int id) {
+    return DatabaseExecutor.run(() -> new Language().setPlayerLanguage(uuid, id));
+  }
+}
@@ -4,52 +4,77 @@
  */
 package org.joshi234.playlegendgroupsystem.database.group;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import org.joshi234.playlegendgroupsystem.Configuration;
 import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.NamedQuery;
+import org.joshi234.playlegendgroupsystem.metrics.LatencyHistogram;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
 
 public class Player {
 
+  private static final LatencyHistogram LOAD_BY_NAME_TIMER = Metrics.daoTimer("Player.loadByName");
+  private static final LatencyHistogram LOAD_UUIDS_BY_NAMES_TIMER =
+      Metrics.daoTimer("Player.loadUuidsByNames");
+  private static final LatencyHistogram GET_PLAYER_NAMES_TIMER =
+      Metrics.daoTimer("Player.getPlayerNames");
+  private static final LatencyHistogram INIT_TIMER = Metrics.daoTimer("Player.<init>");
+  private static final NamedQuery PLAYER_BY_UUID = NamedQuery.define("player-by-uuid",
+      "SELECT p.uuid,p.name,l.code FROM player p "
+          + "LEFT JOIN language l ON l.languageid = p.languageid WHERE p.uuid = ?");
+  private static final NamedQuery PLAYER_BY_NAME = NamedQuery.define("player-by-name",
+      "SELECT uuid,name FROM player WHERE lower(name) = lower(?)");
+
   private String uuid;
   private String name;
 
   /**
    * Constructs a Player object with the specified UUID and name. If the player does not exist in
-   * the database, it creates a new entry. If the player already exists, it updates the player's
-   * name if necessary.
+   * the database, it creates a new entry. If the player already exists and the name changed, the
+   * new name is queued to be written in the background. The player's language preference is
+   * loaded with the player and cached.
    *
    * @param uuid The UUID of the player.
    * @param name The name of the player.
    */
   public Player(String uuid, String name) {
-    try {
-      this.uuid = uuid;
+    long start = System.nanoTime();
+    this.uuid = uuid;
 
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("SELECT * FROM player WHERE uuid = ?");
+    boolean exists;
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = PLAYER_BY_UUID.prepare(connection)) {
       statement.setString(1, this.uuid);
 
-      ResultSet result = statement.executeQuery();
-
-      if (!result.next()) {
-        createUser(uuid, name);
-      } else {
-        this.uuid = result.getString("uuid");
-        this.name = result.getString("name");
-        // Update name
-        if (!Objects.equals(this.name, name)) {
-          updateUserName(name);
+      try (ResultSet result = statement.executeQuery()) {
+        exists = result.next();
+        if (exists) {
+          this.uuid = result.getString("uuid");
+          this.name = result.getString("name");
+          Language.cacheLanguage(this.uuid, result.getString("code"));
         }
       }
 
-      result.close();
-      statement.close();
     } catch (SQLException e) {
       throw new RuntimeException(e);
     }
+
+    if (!exists) {
+      createUser(uuid, name);
+    } else if (!Objects.equals(this.name, name)) {
+      PlayerWriteBuffer.queueNameUpdate(this.uuid, name);
+    }
+    INIT_TIMER.recordSince(start);
   }
 
   /**
@@ -95,70 +120,127 @@ public class Player {
   }
 
   /**
-   * Load player information by name from the database. Updates the UUID and name of the Player
-   * object.
+   * Load player information by name from the database, ignoring the case of the name. Updates the
+   * UUID and name of the Player object.
    *
    * @param name The name of the player.
    * @throws SQLException if the player cannot be found.
    */
   public void loadByName(String name) {
-    try {
-      this.uuid = uuid;
-
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("SELECT * FROM player WHERE name = ?");
-      statement.setString(1, name);
-
-      ResultSet result = statement.executeQuery();
-      if (!result.next()) {
-        throw new SQLException("Couldn't find player!");
-      } else {
-        this.uuid = result.getString("uuid");
-        this.name = result.getString("name");
-        // Update name
-        if (!this.name.equals(name)) {
-          updateUserName(name);
+    long start = System.nanoTime();
+    // A player whose name change is not written yet is found by the UUID
+    String pendingUuid = PlayerWriteBuffer.getPendingUuid(name);
+
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = (pendingUuid == null ? PLAYER_BY_NAME : PLAYER_BY_UUID)
+            .prepare(connection)) {
+      statement.setString(1, pendingUuid == null ? name : pendingUuid);
+
+      try (ResultSet result = statement.executeQuery()) {
+        if (!result.next()) {
+          throw new SQLException("Couldn't find player!");
+        } else {
+          this.uuid = result.getString("uuid");
+          this.name = pendingUuid == null ? result.getString("name")
+              : Objects.requireNonNullElse(PlayerWriteBuffer.getPendingName(pendingUuid), name);
         }
       }
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    } finally {
+      LOAD_BY_NAME_TIMER.recordSince(start);
+    }
+  }
+
+  /**
+   * Retrieves the UUIDs of several players by their names, ignoring the case of the names. Names
+   * whose change is not written yet are found as well.
+   *
+   * @param names the names of the players
+   * @return the UUID of every player that was found, keyed by the name as it was given
+   * @throws RuntimeException if retrieving the players fails
+   */
+  public Map<String, String> loadUuidsByNames(Collection<String> names) {
+    long start = System.nanoTime();
+    Map<String, String> namesByKey = new HashMap<>();
+    for (String name : names) {
+      namesByKey.put(name.toLowerCase(Locale.ROOT), name);
+    }
 
-      result.close();
-      statement.close();
+    Map<String, String> uuids = new HashMap<>();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "SELECT uuid,lower(name) AS namekey FROM player WHERE lower(name) = ANY(?)")) {
+      statement.setArray(1, connection.createArrayOf("varchar", namesByKey.keySet().toArray()));
+
+      try (ResultSet result = statement.executeQuery()) {
+        while (result.next()) {
+          uuids.put(namesByKey.get(result.getString("namekey")), result.getString("uuid"));
+        }
+      }
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      LOAD_UUIDS_BY_NAMES_TIMER.recordSince(start);
+    }
+
+    for (String name : names) {
+      String pendingUuid = PlayerWriteBuffer.getPendingUuid(name);
+      if (pendingUuid != null) {
+        uuids.put(name, pendingUuid);
+      }
     }
+    return uuids;
   }
 
   /**
-   * Update the name of the player in the database.
+   * Retrieves the names of all players from the database.
    *
-   * @param name The new name of the player.
-   * @throws SQLException if an error occurs while updating the name.
+   * @return a list of player names
+   * @throws RuntimeException if retrieving the player names fails
    */
-  private void updateUserName(String name) throws SQLException {
-    PreparedStatement statement = DatabaseManager.getConnection()
-        .prepareStatement("UPDATE player SET name = ? WHERE uuid = ?");
-    statement.setString(1, name);
-    statement.setString(2, this.uuid);
-
-    statement.executeUpdate();
-    statement.close();
+  public List<String> getPlayerNames() {
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("SELECT name FROM player WHERE name IS NOT NULL");
+        ResultSet result = statement.executeQuery()) {
+      List<String> playerNames = new ArrayList<>();
+
+      while (result.next()) {
+        playerNames.add(result.getString("name"));
+      }
+
+      return playerNames;
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    } finally {
+      GET_PLAYER_NAMES_TIMER.recordSince(start);
+    }
   }
 
   /**
-   * Create a new player entry in the database.
+   * Create a new player entry in the database and cache the language preference it got.
    *
    * @param uuid The UUID of the player.
    * @param name The name of the player.
-   * @throws SQLException if an error occurs while creating the player.
+   * @throws RuntimeException if an error occurs while creating the player.
    */
-  private void createUser(String uuid, String name) throws SQLException {
-    PreparedStatement statement = DatabaseManager.getConnection()
-        .prepareStatement("INSERT INTO player (uuid,name) VALUES(?,?)");
-    statement.setString(1, uuid);
-    statement.setString(2, name);
-
-    statement.executeUpdate();
-    statement.close();
+  private void createUser(String uuid, String name) {
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "WITH inserted AS (INSERT INTO player (uuid,name) VALUES(?,?) RETURNING languageid) "
+                + "SELECT l.code FROM inserted "
+                + "LEFT JOIN language l ON l.languageid = inserted.languageid")) {
+      statement.setString(1, uuid);
+      statement.setString(2, name);
+
+      try (ResultSet result = statement.executeQuery()) {
+        Language.cacheLanguage(uuid, result.next() ? result.getString("code") : null);
+      }
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    }
     try {
       new JoinGroup().joinGroupByName(Configuration.getString("default-group"), uuid);
     } catch (Exception e) {
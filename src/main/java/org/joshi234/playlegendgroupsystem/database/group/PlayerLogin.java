@@ -0,0 +1,193 @@
+package org.joshi234.playlegendgroupsystem.database.group;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.NamedQuery;
+import org.joshi234.playlegendgroupsystem.metrics.LatencyHistogram;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
+
+/**
+ * The PlayerLogin class loads everything the server needs when a player joins in a single
+ * statement. The player is created if needed, new players join the default group, expired group
+ * entries are removed, and the language, prefix and groups of the player are returned together.
+ * The language and prefix caches are filled with the loaded values. Name changes are written
+ * later by the {@link PlayerWriteBuffer}.
+ */
+public class PlayerLogin {
+
+  private static final LatencyHistogram LOGIN_TIMER = Metrics.daoTimer("PlayerLogin.login");
+  private static final String NO_PREFIX = "&4none";
+
+  private static final NamedQuery LOGIN = NamedQuery.define("player-login",
+      "WITH previous AS (SELECT name,languageid FROM player WHERE uuid = ?),\n"
+          + "upserted AS (INSERT INTO player (uuid,name) VALUES(?,?) "
+          + "ON CONFLICT (uuid) DO NOTHING RETURNING languageid),\n"
+          + "account AS (SELECT name AS storedname,languageid,false AS created FROM previous "
+          + "UNION ALL SELECT NULL,languageid,true FROM upserted "
+          + "WHERE NOT EXISTS (SELECT 1 FROM previous)),\n"
+          + "defaultgroup AS (INSERT INTO joingroup (uuid,groupid) "
+          + "SELECT ?,groupid FROM \"group\" "
+          + "WHERE name = ? AND EXISTS (SELECT 1 FROM account WHERE created) "
+          + "ORDER BY groupid LIMIT 1 RETURNING groupid,joinuntil),\n"
+          + "expired AS (DELETE FROM joingroup "
+          + "WHERE uuid = ? AND joinuntil <= LOCALTIMESTAMP RETURNING groupid),\n"
+          + "memberships AS (SELECT groupid,joinuntil FROM joingroup "
+          + "WHERE uuid = ? AND (joinuntil IS NULL OR joinuntil > LOCALTIMESTAMP) "
+          + "UNION ALL SELECT groupid,joinuntil FROM defaultgroup)\n"
+          + "SELECT a.storedname,a.created,l.code,m.groupid,m.joinuntil,"
+          + "g.name,g.prefix,g.description,g.weight FROM account a\n"
+          + "LEFT JOIN language l ON l.languageid = a.languageid\n"
+          + "LEFT JOIN memberships m ON true\n"
+          + "LEFT JOIN \"group\" g ON g.groupid = m.groupid\n"
+          + "ORDER BY g.weight ASC NULLS LAST");
+
+  private String uuid;
+  private String storedName;
+  private boolean created;
+  private String languageCode;
+  private String prefix = NO_PREFIX;
+  private final List<Group> groups = new ArrayList<>();
+  private final List<JoinGroup> expiringJoinGroups = new ArrayList<>();
+
+  /**
+   * Retrieves the UUID of the player.
+   *
+   * @return the player's UUID
+   */
+  public String getUuid() {
+    return uuid;
+  }
+
+  /**
+   * Retrieves the name that was stored for the player before the login.
+   *
+   * @return the previous name, or {@code null} if the player was created by the login
+   */
+  public String getStoredName() {
+    return storedName;
+  }
+
+  /**
+   * Indicates whether the player joined the server for the first time.
+   *
+   * @return {@code true} if the player was created by the login
+   */
+  public boolean isCreated() {
+    return created;
+  }
+
+  /**
+   * Retrieves the language code of the player.
+   *
+   * @return the language code, or {@code null} if the player has not chosen a language
+   */
+  public String getLanguageCode() {
+    return languageCode;
+  }
+
+  /**
+   * Retrieves the prefix of the player's highest group.
+   *
+   * @return the prefix of the player
+   */
+  public String getPrefix() {
+    return prefix;
+  }
+
+  /**
+   * Retrieves the groups the player belongs to, ordered by their weight.
+   *
+   * @return a list of Group objects representing the player's groups
+   */
+  public List<Group> getGroups() {
+    return groups;
+  }
+
+  /**
+   * Retrieves the group entries of the player that have a join until timestamp.
+   *
+   * @return a list of JoinGroup objects ordered by their join until timestamp
+   */
+  public List<JoinGroup> getExpiringJoinGroups() {
+    return expiringJoinGroups;
+  }
+
+  /**
+   * Logs in a player. The player is created if it does not exist yet and joins the default group,
+   * otherwise a changed name is queued to be written in the background.
+   *
+   * @param uuid         the player's UUID
+   * @param name         the player's current name
+   * @param defaultGroup the name of the group new players join
+   * @throws RuntimeException if the login statement fails
+   */
+  public void login(String uuid, String name, String defaultGroup) {
+    long start = System.nanoTime();
+    this.uuid = uuid;
+
+    Timestamp nextExpiry = null;
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = LOGIN.prepare(connection)) {
+      statement.setString(1, uuid);
+      statement.setString(2, uuid);
+      statement.setString(3, name);
+      statement.setString(4, uuid);
+      statement.setString(5, defaultGroup);
+      statement.setString(6, uuid);
+      statement.setString(7, uuid);
+
+      try (ResultSet result = statement.executeQuery()) {
+        while (result.next()) {
+          // The player columns are repeated on every group row
+          this.storedName = result.getString("storedname");
+          this.created = result.getBoolean("created");
+          this.languageCode = result.getString("code");
+
+          String groupName = result.getString("name");
+          if (groupName == null) {
+            continue;
+          }
+
+          if (groups.isEmpty()) {
+            this.prefix = result.getString("prefix");
+          }
+          groups.add(new Group(groupName, result.getString("prefix"),
+              result.getString("description"), result.getInt("weight")));
+
+          Timestamp joinUntil = result.getTimestamp("joinuntil");
+          if (joinUntil != null) {
+            JoinGroup joinGroup = new JoinGroup();
+            joinGroup.setUuid(uuid);
+            joinGroup.setGroupId(result.getInt("groupid"));
+            joinGroup.setJoinUntil(joinUntil);
+            expiringJoinGroups.add(joinGroup);
+
+            if (nextExpiry == null || joinUntil.before(nextExpiry)) {
+              nextExpiry = joinUntil;
+            }
+          }
+        }
+      }
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    } finally {
+      LOGIN_TIMER.recordSince(start);
+    }
+
+    if (!created && !Objects.equals(storedName, name)) {
+      PlayerWriteBuffer.queueNameUpdate(uuid, name);
+    }
+
+    expiringJoinGroups.sort(Comparator.comparing(JoinGroup::getJoinUntil));
+    Language.cacheLanguage(uuid, languageCode);
+    JoinGroup.cachePrefix(uuid, prefix, nextExpiry);
+  }
+}
@@ -0,0 +1,65 @@
+package org.joshi234.playlegendgroupsystem.database.group;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+
+/**
+ * The PlayerRepository class provides asynchronous access to players. Every operation runs on a
+ * database thread and the returned futures complete there as well.
+ */
+public class PlayerRepository {
+
+  /**
+   * Logs in a player, creating the player if it does not exist yet.
+   *
+   * @param uuid         The UUID of the player.
+   * @param name         The name of the player.
+   * @param defaultGroup The name of the group new players join.
+   * @return a future completed with the login data of the player
+   */
+  public static CompletableFuture<PlayerLogin> loginAsync(String uuid, String name,
+      String defaultGroup) {
+    return DatabaseExecutor.supply(() -> {
+      PlayerLogin login = new PlayerLogin();
+      login.login(uuid, name, defaultGroup);
+      return login;
+    });
+  }
+
+  /**
+   * Loads a player by name.
+   *
+   * @param name The name of the player.
+   * @return a future completed with the player, or completed exceptionally if no player is found
+   */
+  public static CompletableFuture<Player> loadByNameAsync(String name) {
+    return DatabaseExecutor.supply(() -> {
+      Player player = new Player();
+      player.loadByName(name);
+      return player;
+    });
+  }
+
+  /**
+   * Retrieves the UUIDs of several players by their names.
+   *
+   * @param names The names of the players.
+   * @return a future completed with the UUID of every player that was found, keyed by name
+   */
+  public static CompletableFuture<Map<String, String>> loadUuidsByNamesAsync(
+      Collection<String> names) {
+    return DatabaseExecutor.supply(() -> new Player().loadUuidsByNames(names));
+  }
+
+  /**
+   * Retrieves the names of all players.
+   *
+   * @return a future completed with the player names
+   */
+  public static CompletableFuture<List<String>> getPlayerNamesAsync() {
+    return DatabaseExecutor.supply(() -> new Player().getPlayerNames());
+  }
+}
@@ -0,0 +1,181 @@
+package org.joshi234.playlegendgroupsystem.database.group;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.metrics.LatencyHistogram;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
+
+/**
+ * The PlayerWriteBuffer class delays updates of player rows that nobody waits for, like name
+ * changes. Updates are kept per player, so only the latest one is written, and are written in
+ * batches on a background thread after an interval or once enough updates are pending. Until an
+ * update is written, lookups by name see the pending name.
+ */
+public class PlayerWriteBuffer {
+
+  private static final LatencyHistogram FLUSH_TIMER = Metrics.daoTimer("PlayerWriteBuffer.flush");
+  private static final int DEFAULT_BATCH_SIZE = 100;
+
+  private static final Map<String, String> pendingNames = new ConcurrentHashMap<>();
+  private static final Object flushLock = new Object();
+  private static final AtomicBoolean flushRequested = new AtomicBoolean();
+  private static volatile ScheduledExecutorService flusher;
+  private static volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+  /**
+   * Starts writing pending updates in the background. An already running flusher is shut down
+   * first, which writes every pending update.
+   *
+   * @param flushIntervalMillis the time between two flushes in milliseconds
+   * @param batchSize           the number of pending updates that triggers a flush right away
+   */
+  public static synchronized void start(long flushIntervalMillis, int batchSize) {
+    shutdown();
+
+    PlayerWriteBuffer.batchSize = batchSize;
+    flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "GroupSystem-WriteBehind");
+      thread.setDaemon(true);
+      return thread;
+    });
+    flusher.scheduleWithFixedDelay(PlayerWriteBuffer::flushQuietly, flushIntervalMillis,
+        flushIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops the background flusher and writes every pending update. Must be called before the
+   * connection pool is closed.
+   */
+  public static synchronized void shutdown() {
+    if (flusher == null) {
+      return;
+    }
+
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flusher = null;
+    flushQuietly();
+  }
+
+  /**
+   * Queues a name change of a player. A name change that is still pending for the same player is
+   * replaced.
+   *
+   * @param uuid the player's UUID
+   * @param name the player's new name
+   */
+  public static void queueNameUpdate(String uuid, String name) {
+    pendingNames.put(uuid, name);
+
+    ScheduledExecutorService current = flusher;
+    if (current != null && pendingNames.size() >= batchSize
+        && flushRequested.compareAndSet(false, true)) {
+      try {
+        current.execute(() -> {
+          flushRequested.set(false);
+          flushQuietly();
+        });
+      } catch (RuntimeException e) {
+        // The flusher is shutting down and writes the pending updates itself
+        flushRequested.set(false);
+      }
+    }
+  }
+
+  /**
+   * Retrieves the UUID of the player whose pending name change is the specified name, ignoring
+   * its case.
+   *
+   * @param name the new name of the player
+   * @return the player's UUID, or {@code null} if no name change to this name is pending
+   */
+  public static String getPendingUuid(String name) {
+    for (Map.Entry<String, String> entry : pendingNames.entrySet()) {
+      if (entry.getValue().equalsIgnoreCase(name)) {
+        return entry.getKey();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Retrieves the pending new name of a player.
+   *
+   * @param uuid the UUID of the player
+   * @return the new name, or {@code null} if no name change of the player is pending
+   */
+  public static String getPendingName(String uuid) {
+    return pendingNames.get(uuid);
+  }
+
+  /**
+   * Retrieves the number of updates that have not been written yet.
+   *
+   * @return the number of pending updates
+   */
+  public static int getPendingCount() {
+    return pendingNames.size();
+  }
+
+  /**
+   * Writes every pending update in a single batch.
+   *
+   * @throws RuntimeException if the batch fails, in which case the updates stay pending
+   */
+  public static void flush() {
+    synchronized (flushLock) {
+      if (pendingNames.isEmpty()) {
+        return;
+      }
+
+      List<Map.Entry<String, String>> batch = new ArrayList<>();
+      for (Map.Entry<String, String> entry : pendingNames.entrySet()) {
+        batch.add(Map.entry(entry.getKey(), entry.getValue()));
+      }
+
+      long start = System.nanoTime();
+      try (Connection connection = DatabaseManager.getConnection();
+          PreparedStatement statement = connection
+              .prepareStatement("UPDATE player SET name = ? WHERE uuid = ?")) {
+        for (Map.Entry<String, String> entry : batch) {
+          statement.setString(1, entry.getValue());
+          statement.setString(2, entry.getKey());
+          statement.addBatch();
+        }
+        statement.executeBatch();
+      } catch (SQLException e) {
+        throw new RuntimeException(e);
+      } finally {
+        FLUSH_TIMER.recordSince(start);
+      }
+
+      // Updates queued while the batch was written stay pending
+      for (Map.Entry<String, String> entry : batch) {
+        pendingNames.remove(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private static void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      DatabaseExecutor.logFailure(e);
+    }
+  }
+}
@@ -1,151 +1,253 @@
 package org.joshi234.playlegendgroupsystem.database.group;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.joshi234.playlegendgroupsystem.BlockPositionMap;
+import org.joshi234.playlegendgroupsystem.database.ChangeNotifier;
+import org.joshi234.playlegendgroupsystem.database.ChangeType;
 import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.metrics.LatencyHistogram;
+import org.joshi234.playlegendgroupsystem.metrics.Metrics;
 
 /**
  * The Sign class represents signs in the PlayLegend Group System. It provides methods to retrieve,
- * add, and remove sign locations from the database.
+ * add, and remove sign locations from the database. Loaded signs are kept per world in a
+ * {@link BlockPositionMap} from their block position to their sign ID, which may be read and
+ * written from any thread.
  */
 public class Sign {
 
-  private static List<Location> signLocations;
+  private static final LatencyHistogram LOAD_SIGNS_TIMER = Metrics.daoTimer("Sign.loadSigns");
+  private static final LatencyHistogram ADD_SIGN_TIMER = Metrics.daoTimer("Sign.addSign");
+  private static final LatencyHistogram REMOVE_SIGN_TIMER = Metrics.daoTimer("Sign.removeSign");
+  private static final Map<String, BlockPositionMap> signsByWorld = new ConcurrentHashMap<>();
+
+  private static volatile boolean loaded;
 
   /**
-   * Retrieves all sign locations from the database. If the signLocations list is {@code null}, it
-   * queries the database and populates the list.
+   * Retrieves all sign locations. If the signs have not been loaded yet, it queries the database
+   * first.
    *
    * @return a list of sign locations
    */
   public static List<Location> getSigns() {
-    if (signLocations == null) {
-      signLocations = new ArrayList<>();
-      try {
-        PreparedStatement statement = DatabaseManager.getConnection()
-            .prepareStatement("SELECT * FROM sign");
-
-        ResultSet result = statement.executeQuery();
-
-        while (result.next()) {
-          signLocations.add(new Location(Bukkit.getWorld(result.getString("world")),
-              result.getInt("posX"),
-              result.getInt("posY"),
-              result.getInt("posZ")));
-        }
+    loadSigns();
+
+    List<Location> signLocations = new ArrayList<>();
+    for (Map.Entry<String, BlockPositionMap> entry : signsByWorld.entrySet()) {
+      World world = Bukkit.getWorld(entry.getKey());
+      BlockPositionMap signs = entry.getValue();
+      synchronized (signs) {
+        signs.forEach((position, id) -> signLocations.add(new Location(world,
+            BlockPositionMap.unpackX(position),
+            BlockPositionMap.unpackY(position),
+            BlockPositionMap.unpackZ(position))));
+      }
+    }
+    return signLocations;
+  }
+
+  /**
+   * Loads all sign locations from the database, unless they have been loaded already.
+   */
+  private static synchronized void loadSigns() {
+    if (loaded) {
+      return;
+    }
+
+    long start = System.nanoTime();
 
-        return signLocations;
-      } catch (SQLException e) {
-        throw new RuntimeException(e);
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("SELECT signid,world,posX,posY,posZ FROM sign");
+        ResultSet result = statement.executeQuery()) {
+
+      while (result.next()) {
+        BlockPositionMap signs = getWorldSigns(result.getString("world"));
+        synchronized (signs) {
+          signs.put(BlockPositionMap.pack(result.getInt("posX"), result.getInt("posY"),
+              result.getInt("posZ")), result.getInt("signid"));
+        }
       }
-    } else {
-      return signLocations;
+      loaded = true;
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    } finally {
+      LOAD_SIGNS_TIMER.recordSince(start);
     }
   }
 
   /**
-   * Adds a sign location to the database. Also updates the signLocations list.
+   * Adds a sign location to the database. Also updates the loaded signs.
    *
    * @param location the location of the sign
    */
   public static void addSign(Location location) {
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("INSERT INTO sign(world,posX,posY,posZ) VALUES(?,?,?,?)");
+    long start = System.nanoTime();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement(
+                "INSERT INTO sign(world,posX,posY,posZ) VALUES(?,?,?,?) RETURNING signid")) {
       statement.setString(1, location.getWorld().getName());
       statement.setInt(2, location.getBlockX());
       statement.setInt(3, location.getBlockY());
       statement.setInt(4, location.getBlockZ());
 
-      int affectedRows = statement.executeUpdate();
-      if (affectedRows == 0) {
-        throw new SQLException("Creating sign failed");
-      }
-
-      signLocations.add(convertGameLocationToDbLocation(location));
+      int signId;
+      try (ResultSet result = statement.executeQuery()) {
+        if (!result.next()) {
+          throw new SQLException("Creating sign failed");
+        }
 
-      statement.close();
+        signId = result.getInt("signid");
+        BlockPositionMap signs = getWorldSigns(location.getWorld().getName());
+        synchronized (signs) {
+          signs.put(toPosition(location), signId);
+        }
+      }
+      ChangeNotifier.publish(connection, ChangeType.SIGN, toChangeKey('+', signId, location));
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      ADD_SIGN_TIMER.recordSince(start);
     }
   }
 
   /**
-   * Removes a sign location from the database. Also updates the signLocations list.
+   * Removes a sign location from the database. Also updates the loaded signs.
    *
    * @param location the location of the sign to be removed
    */
   public static void removeSign(Location location) {
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement(
-              "DELETE FROM sign WHERE world = ? AND posX = ? AND posY = ? AND posZ = ?");
-      statement.setString(1, location.getWorld().getName());
-      statement.setInt(2, location.getBlockX());
-      statement.setInt(3, location.getBlockY());
-      statement.setInt(4, location.getBlockZ());
+    long start = System.nanoTime();
+    BlockPositionMap signs = getWorldSigns(location.getWorld().getName());
+    int signId;
+    synchronized (signs) {
+      signId = signs.get(toPosition(location));
+    }
+
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = signId != BlockPositionMap.NO_ID
+            ? connection.prepareStatement("DELETE FROM sign WHERE signid = ?")
+            : connection.prepareStatement(
+                "DELETE FROM sign WHERE world = ? AND posX = ? AND posY = ? AND posZ = ?")) {
+      if (signId != BlockPositionMap.NO_ID) {
+        statement.setInt(1, signId);
+      } else {
+        statement.setString(1, location.getWorld().getName());
+        statement.setInt(2, location.getBlockX());
+        statement.setInt(3, location.getBlockY());
+        statement.setInt(4, location.getBlockZ());
+      }
 
       int affectedRows = statement.executeUpdate();
 
       if (affectedRows == 0) {
         throw new SQLException("Deleting sign failed");
       }
-      signLocations.remove(convertGameLocationToDbLocation(location));
-
-      statement.close();
+      synchronized (signs) {
+        signs.remove(toPosition(location));
+      }
+      ChangeNotifier.publish(connection, ChangeType.SIGN, toChangeKey('-', signId, location));
     } catch (SQLException e) {
       throw new RuntimeException(e);
+    } finally {
+      REMOVE_SIGN_TIMER.recordSince(start);
     }
   }
 
   /**
-   * Checks if a sign location is present in the signLocations list.
+   * Adds a sign that was added by another server to the loaded signs.
    *
-   * @param location the location to check
-   * @return true if the sign location is present, false otherwise
+   * @param location the location of the sign
+   * @param signId   the ID of the sign
    */
-  public static boolean isSignPresent(Location location) {
-    for (Location loc : signLocations) {
-      if (locationEquals(loc, location)) {
-        return true;
-      }
+  public static void trackSign(Location location, int signId) {
+    BlockPositionMap signs = getWorldSigns(location.getWorld().getName());
+    synchronized (signs) {
+      signs.put(toPosition(location), signId);
     }
-    return false;
   }
 
   /**
-   * Checks if two locations are equal in terms of block coordinates and world.
+   * Removes a sign that was removed by another server from the loaded signs.
    *
-   * @param loc1 the first location
-   * @param loc2 the second location
-   * @return true if the locations are equal, false otherwise
+   * @param location the location of the sign
    */
-  private static boolean locationEquals(Location loc1, Location loc2) {
-    if (loc1.getBlockX() != loc2.getBlockX()) {
-      return false;
+  public static void untrackSign(Location location) {
+    BlockPositionMap signs = signsByWorld.get(location.getWorld().getName());
+    if (signs == null) {
+      return;
     }
-    if (loc1.getBlockY() != loc2.getBlockY()) {
-      return false;
+    synchronized (signs) {
+      signs.remove(toPosition(location));
     }
-    if (loc1.getBlockZ() != loc2.getBlockZ()) {
+  }
+
+  /**
+   * Drops the loaded signs, so they are loaded from the database on the next access.
+   */
+  public static synchronized void invalidateSigns() {
+    signsByWorld.clear();
+    loaded = false;
+  }
+
+  /**
+   * Checks if a sign is present at the block of a location.
+   *
+   * @param location the location to check
+   * @return true if the sign location is present, false otherwise
+   */
+  public static boolean isSignPresent(Location location) {
+    BlockPositionMap signs = signsByWorld.get(location.getWorld().getName());
+    if (signs == null) {
       return false;
     }
-    return loc1.getWorld().getName().equals(loc2.getWorld().getName());
+    synchronized (signs) {
+      return signs.contains(toPosition(location));
+    }
+  }
+
+  /**
+   * Retrieves the signs of a world, creating an empty map if the world has none yet.
+   *
+   * @param world the name of the world
+   * @return the signs of the world
+   */
+  private static BlockPositionMap getWorldSigns(String world) {
+    return signsByWorld.computeIfAbsent(world, key -> new BlockPositionMap());
+  }
+
+  /**
+   * Converts a sign location to the key its change is announced with.
+   *
+   * @param operation {@code '+'} for an added and {@code '-'} for a removed sign
+   * @param signId    the ID of the sign, or {@link BlockPositionMap#NO_ID} if it is not known
+   * @param loc       the location of the sign
+   * @return the change key
+   */
+  private static String toChangeKey(char operation, int signId, Location loc) {
+    // The operation is converted first, as a char and an int would be added as numbers
+    return String.valueOf(operation) + signId + "," + loc.getBlockX() + "," + loc.getBlockY() + ","
+        + loc.getBlockZ() + "," + loc.getWorld().getName();
   }
 
   /**
-   * Converts a game location to a database location.
+   * Converts a game location to a packed block position.
    *
    * @param loc the game location to convert
-   * @return the converted database location
+   * @return the packed block position
    */
-  private static Location convertGameLocationToDbLocation(Location loc) {
-    return new Location(loc.getWorld(), loc.getBlockX(), loc.getBlockY(),
-        loc.getBlockZ());
+  private static long toPosition(Location loc) {
+    return BlockPositionMap.pack(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
   }
 }
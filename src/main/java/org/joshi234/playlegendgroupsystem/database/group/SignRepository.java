@@ -0,0 +1,42 @@
+package org.joshi234.playlegendgroupsystem.database.group;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.bukkit.Location;
+import org.joshi234.playlegendgroupsystem.database.DatabaseExecutor;
+
+/**
+ * The SignRepository class provides asynchronous access to group signs. Every operation runs on a
+ * database thread and the returned futures complete there as well.
+ */
+public class SignRepository {
+
+  /**
+   * Retrieves all sign locations.
+   *
+   * @return a future completed with the sign locations
+   */
+  public static CompletableFuture<List<Location>> getSignsAsync() {
+    return DatabaseExecutor.supply(Sign::getSigns);
+  }
+
+  /**
+   * Adds a sign location.
+   *
+   * @param location the location of the sign
+   * @return a future completed once the sign is stored
+   */
+  public static CompletableFuture<Void> addAsync(Location location) {
+    return DatabaseExecutor.run(() -> Sign.addSign(location));
+  }
+
+  /**
+   * Removes a sign location.
+   *
+   * @param location the location of the sign to be removed
+   * @return a future completed once the sign is removed
+   */
+  public static CompletableFuture<Void> removeAsync(Location location) {
+    return DatabaseExecutor.run(() -> Sign.removeSign(location));
+  }
+}
@@ -0,0 +1,151 @@
+package org.joshi234.playlegendgroupsystem.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class counts how long an operation took in fixed buckets between 10
+ * microseconds and 2.5 seconds. Recording is lock free and may happen from any thread, so it is
+ * cheap enough for paths that run for every chat message.
+ */
+public class LatencyHistogram {
+
+  // Upper bounds of the buckets in nanoseconds, the last bucket has no upper bound
+  private static final long[] BUCKET_BOUNDS = {
+      10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+      1_000_000, 2_500_000, 5_000_000, 10_000_000, 25_000_000, 50_000_000,
+      100_000_000, 250_000_000, 500_000_000, 1_000_000_000, 2_500_000_000L
+  };
+
+  private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sumNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+  /**
+   * Constructs an empty histogram.
+   */
+  public LatencyHistogram() {
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records the duration of an operation.
+   *
+   * @param nanos the duration in nanoseconds
+   */
+  public void record(long nanos) {
+    int bucket = 0;
+    while (bucket < BUCKET_BOUNDS.length && nanos > BUCKET_BOUNDS[bucket]) {
+      bucket++;
+    }
+    buckets[bucket].increment();
+    count.increment();
+    sumNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+  }
+
+  /**
+   * Records the duration of an operation that started at the specified time.
+   *
+   * @param startNanos the start of the operation, as returned by {@link System#nanoTime()}
+   */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Retrieves the number of recorded operations.
+   *
+   * @return the number of operations
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Retrieves the total duration of the recorded operations.
+   *
+   * @return the total duration in nanoseconds
+   */
+  public long getSumNanos() {
+    return sumNanos.sum();
+  }
+
+  /**
+   * Retrieves the longest recorded duration.
+   *
+   * @return the maximum duration in nanoseconds
+   */
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  /**
+   * Retrieves the average duration of the recorded operations, in milliseconds.
+   *
+   * @return the average duration in milliseconds, or 0 if nothing has been recorded
+   */
+  public double getAverageMillis() {
+    long operations = getCount();
+    return operations == 0 ? 0 : toMillis(getSumNanos()) / operations;
+  }
+
+  /**
+   * Estimates a percentile of the recorded durations as the upper bound of the bucket it falls
+   * into. Durations in the last bucket are estimated as the maximum.
+   *
+   * @param quantile the quantile between 0 and 1, such as 0.99
+   * @return the estimated duration in milliseconds, or 0 if nothing has been recorded
+   */
+  public double getPercentileMillis(double quantile) {
+    long[] counts = getBucketCounts();
+    long total = 0;
+    for (long bucketCount : counts) {
+      total += bucketCount;
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long rank = (long) Math.ceil(quantile * total);
+    long seen = 0;
+    for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return toMillis(Math.min(BUCKET_BOUNDS[i], getMaxNanos()));
+      }
+    }
+    return toMillis(getMaxNanos());
+  }
+
+  /**
+   * Retrieves the number of operations in every bucket. The last bucket holds the operations
+   * slower than every bound.
+   *
+   * @return the counts of the buckets, in the order of their bounds
+   */
+  public long[] getBucketCounts() {
+    long[] counts = new long[buckets.length];
+    for (int i = 0; i < buckets.length; i++) {
+      counts[i] = buckets[i].sum();
+    }
+    return counts;
+  }
+
+  /**
+   * Retrieves the upper bounds of the buckets, without the last unbounded bucket.
+   *
+   * @return the bounds in nanoseconds
+   */
+  public static long[] getBucketBounds() {
+    return BUCKET_BOUNDS.clone();
+  }
+
+  private static double toMillis(long nanos) {
+    return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+}
@@ -0,0 +1,111 @@
+package org.joshi234.playlegendgroupsystem.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The Metrics class is the registry of the plugin's measurements. Database operations are timed
+ * per DAO method, and the work done on the server thread is timed per task, so lag can be
+ * attributed to this plugin. Caches register their hit and miss counters here as well.
+ */
+public class Metrics {
+
+  private static final Map<String, LatencyHistogram> daoTimers = new ConcurrentSkipListMap<>();
+  private static final Map<String, LatencyHistogram> mainThreadTimers =
+      new ConcurrentSkipListMap<>();
+  private static final Map<String, CacheCounters> caches = new ConcurrentSkipListMap<>();
+
+  /**
+   * The hit and miss counters of a cache.
+   *
+   * @param hits   supplies the number of lookups that were served from the cache
+   * @param misses supplies the number of lookups that had to load the value
+   */
+  public record CacheCounters(LongSupplier hits, LongSupplier misses) {
+
+    /**
+     * Retrieves the share of lookups that were served from the cache.
+     *
+     * @return the hit ratio between 0 and 1, or 0 if the cache has not been used yet
+     */
+    public double hitRatio() {
+      long hitCount = hits.getAsLong();
+      long requests = hitCount + misses.getAsLong();
+      return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+  }
+
+  /**
+   * Retrieves the timer of a DAO method, creating it on first use.
+   *
+   * @param method the name of the method, such as {@code Group.loadGroupByName}
+   * @return the timer of the method
+   */
+  public static LatencyHistogram daoTimer(String method) {
+    return daoTimers.computeIfAbsent(method, key -> new LatencyHistogram());
+  }
+
+  /**
+   * Retrieves the timer of a task that runs on the server thread, creating it on first use.
+   *
+   * @param task the name of the task, such as {@code command.add}
+   * @return the timer of the task
+   */
+  public static LatencyHistogram mainThreadTimer(String task) {
+    return mainThreadTimers.computeIfAbsent(task, key -> new LatencyHistogram());
+  }
+
+  /**
+   * Registers the hit and miss counters of a cache. A cache registered again replaces its
+   * previous counters.
+   *
+   * @param name   the name of the cache
+   * @param hits   supplies the number of hits
+   * @param misses supplies the number of misses
+   */
+  public static void registerCache(String name, LongSupplier hits, LongSupplier misses) {
+    caches.put(name, new CacheCounters(hits, misses));
+  }
+
+  /**
+   * Retrieves the timers of the DAO methods.
+   *
+   * @return the timers sorted by method name
+   */
+  public static Map<String, LatencyHistogram> getDaoTimers() {
+    return Collections.unmodifiableMap(daoTimers);
+  }
+
+  /**
+   * Retrieves the timers of the tasks that run on the server thread.
+   *
+   * @return the timers sorted by task name
+   */
+  public static Map<String, LatencyHistogram> getMainThreadTimers() {
+    return Collections.unmodifiableMap(mainThreadTimers);
+  }
+
+  /**
+   * Retrieves the counters of the registered caches.
+   *
+   * @return the counters sorted by cache name
+   */
+  public static Map<String, CacheCounters> getCaches() {
+    return Collections.unmodifiableMap(caches);
+  }
+
+  /**
+   * Retrieves the total time the plugin spent on the server thread in its timed tasks.
+   *
+   * @return the total time in nanoseconds
+   */
+  public static long getMainThreadNanos() {
+    long total = 0;
+    for (LatencyHistogram timer : mainThreadTimers.values()) {
+      total += timer.getSumNanos();
+    }
+    return total;
+  }
+}
@@ -0,0 +1,177 @@
+package org.joshi234.playlegendgroupsystem.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.joshi234.playlegendgroupsystem.GroupSystem;
+import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.PoolMetrics;
+import org.joshi234.playlegendgroupsystem.database.QueryGuard;
+
+/**
+ * The PrometheusExporter class writes the metrics of the plugin to a local file in the Prometheus
+ * text format, so they can be collected by the node exporter's textfile collector or read by hand.
+ * The file is replaced atomically, so readers never see a partially written file.
+ */
+public class PrometheusExporter {
+
+  private static BukkitTask task;
+
+  /**
+   * Starts writing the metrics periodically. An already running export is stopped first.
+   *
+   * @param file            the file the metrics are written to
+   * @param intervalSeconds the seconds between two writes
+   */
+  public static synchronized void start(File file, long intervalSeconds) {
+    stop();
+
+    long intervalTicks = Math.max(1, intervalSeconds) * 20;
+    task = Bukkit.getScheduler().runTaskTimerAsynchronously(GroupSystem.getInstance(),
+        () -> {
+          try {
+            write(file.toPath());
+          } catch (IOException e) {
+            GroupSystem.getInstance().getLogger()
+                .log(Level.WARNING, "Could not write the metrics to " + file, e);
+          }
+        }, intervalTicks, intervalTicks);
+  }
+
+  /**
+   * Stops writing the metrics.
+   */
+  public static synchronized void stop() {
+    if (task != null) {
+      task.cancel();
+      task = null;
+    }
+  }
+
+  /**
+   * Writes the current metrics to a file, replacing its previous content.
+   *
+   * @param file the file the metrics are written to
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(Path file) throws IOException {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    Files.writeString(temporary, format(), StandardCharsets.UTF_8);
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Formats the current metrics in the Prometheus text format.
+   *
+   * @return the formatted metrics
+   */
+  public static String format() {
+    StringBuilder out = new StringBuilder();
+
+    appendHistograms(out, "groupsystem_dao_seconds",
+        "Duration of the database operations per DAO method.", "method",
+        Metrics.getDaoTimers());
+    appendHistograms(out, "groupsystem_main_thread_seconds",
+        "Duration of the plugin's work on the server thread per task.", "task",
+        Metrics.getMainThreadTimers());
+
+    appendHeader(out, "groupsystem_cache_hits_total", "Lookups served from a cache.", "counter");
+    for (Map.Entry<String, Metrics.CacheCounters> entry : Metrics.getCaches().entrySet()) {
+      appendSample(out, "groupsystem_cache_hits_total", "cache", entry.getKey(), null,
+          entry.getValue().hits().getAsLong());
+    }
+    appendHeader(out, "groupsystem_cache_misses_total", "Lookups that loaded the value.",
+        "counter");
+    for (Map.Entry<String, Metrics.CacheCounters> entry : Metrics.getCaches().entrySet()) {
+      appendSample(out, "groupsystem_cache_misses_total", "cache", entry.getKey(), null,
+          entry.getValue().misses().getAsLong());
+    }
+
+    appendHeader(out, "groupsystem_server_thread_queries_total",
+        "Queries that ran on the server thread.", "counter");
+    appendSample(out, "groupsystem_server_thread_queries_total", null, null, null,
+        QueryGuard.getServerThreadQueries());
+    appendHeader(out, "groupsystem_slow_queries_total",
+        "Statements slower than the slow query threshold.", "counter");
+    appendSample(out, "groupsystem_slow_queries_total", null, null, null,
+        QueryGuard.getSlowQueries());
+
+    PoolMetrics pool = DatabaseManager.getPoolMetrics();
+    if (pool != null) {
+      appendGauge(out, "groupsystem_pool_active_connections",
+          "Connections currently borrowed from the pool.", pool.getActiveConnections());
+      appendGauge(out, "groupsystem_pool_idle_connections",
+          "Idle connections in the pool.", pool.getIdleConnections());
+      appendGauge(out, "groupsystem_pool_pending_threads",
+          "Callers waiting for a connection.", pool.getPendingThreads());
+      appendHeader(out, "groupsystem_pool_timeouts_total",
+          "Callers that gave up waiting for a connection.", "counter");
+      appendSample(out, "groupsystem_pool_timeouts_total", null, null, null, pool.getTimeouts());
+    }
+    return out.toString();
+  }
+
+  private static void appendHistograms(StringBuilder out, String name, String help, String label,
+      Map<String, LatencyHistogram> timers) {
+    appendHeader(out, name, help, "histogram");
+    long[] bounds = LatencyHistogram.getBucketBounds();
+    for (Map.Entry<String, LatencyHistogram> entry : timers.entrySet()) {
+      LatencyHistogram timer = entry.getValue();
+      long[] counts = timer.getBucketCounts();
+
+      long cumulative = 0;
+      for (int i = 0; i < counts.length; i++) {
+        cumulative += counts[i];
+        String bound = i < bounds.length ? formatSeconds(bounds[i]) : "+Inf";
+        appendSample(out, name + "_bucket", label, entry.getKey(), bound, cumulative);
+      }
+      appendSample(out, name + "_sum", label, entry.getKey(), null,
+          formatSeconds(timer.getSumNanos()));
+      appendSample(out, name + "_count", label, entry.getKey(), null, cumulative);
+    }
+  }
+
+  private static void appendGauge(StringBuilder out, String name, String help, long value) {
+    appendHeader(out, name, help, "gauge");
+    appendSample(out, name, null, null, null, value);
+  }
+
+  private static void appendHeader(StringBuilder out, String name, String help, String type) {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void appendSample(StringBuilder out, String name, String label,
+      String labelValue, String bound, Object value) {
+    out.append(name);
+    if (label != null || bound != null) {
+      out.append('{');
+      if (label != null) {
+        out.append(label).append("=\"").append(escape(labelValue)).append('"');
+      }
+      if (bound != null) {
+        out.append(label != null ? "," : "").append("le=\"").append(bound).append('"');
+      }
+      out.append('}');
+    }
+    out.append(' ').append(value).append('\n');
+  }
+
+  private static String formatSeconds(long nanos) {
+    return String.format(Locale.ROOT, "%.9f", nanos / 1e9).replaceAll("0+$", "")
+        .replaceAll("\\.$", ".0");
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
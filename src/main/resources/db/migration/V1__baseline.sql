@@ -0,0 +1,63 @@
+-- The schema of dump.sql. Existing installations already have these tables, so every statement
+-- only creates what is missing.
+create table if not exists "group"
+(
+    groupid     serial
+        primary key,
+    name        varchar(25)       not null
+        constraint group_pk
+            unique,
+    prefix      varchar(20)       not null,
+    description varchar(100)      not null,
+    weight      integer default 1 not null
+);
+
+create table if not exists language
+(
+    languageid serial
+        constraint language_pk
+            primary key,
+    name       varchar(40) not null,
+    code       varchar(2)  not null
+);
+
+create table if not exists player
+(
+    uuid       varchar(36) not null
+        constraint user_pkey
+            primary key,
+    name       varchar(255),
+    languageid serial
+        constraint language_languageid_fk
+            references language
+);
+
+create table if not exists joingroup
+(
+    uuid      varchar(36) not null
+        references player,
+    groupid   serial
+        references "group",
+    joinuntil timestamp,
+    constraint joingroup_key
+        unique (uuid, groupid)
+);
+
+create table if not exists sign
+(
+    signid serial
+        primary key,
+    world  varchar(100) not null,
+    posx   integer      not null,
+    posy   integer      not null,
+    posz   integer      not null
+);
+
+insert into language(name, code)
+select seed.name, seed.code
+from (values ('English', 'en'), ('French', 'fr'), ('German', 'de')) as seed(name, code)
+where not exists (select 1 from language where language.code = seed.code);
+
+insert into "group"(name, prefix, description, weight)
+select 'player', '&ePlayer', 'description', 10
+where not exists (select 1 from "group" where name = 'player');
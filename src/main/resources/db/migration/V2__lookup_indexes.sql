@@ -0,0 +1,13 @@
+-- Player.loadByName and the bulk commands look players up by name, ignoring its case
+create index if not exists player_name_idx on player (name);
+create index if not exists player_name_lower_idx on player (lower(name));
+
+-- The expiry sweep only reads temporary memberships
+create index if not exists joingroup_joinuntil_idx on joingroup (joinuntil)
+    where joinuntil is not null;
+
+-- Deleting a group removes its memberships
+create index if not exists joingroup_groupid_idx on joingroup (groupid);
+
+-- Sign.removeSign finds a sign by its position
+create index if not exists sign_position_idx on sign (world, posx, posy, posz);
@@ -0,0 +1,10 @@
+-- The foreign key columns were created as serial. New players got the next value of a sequence
+-- as their language, which fails once it passes the last language, instead of none.
+alter table player
+    alter column languageid drop default,
+    alter column languageid drop not null;
+drop sequence if exists player_languageid_seq;
+
+alter table joingroup
+    alter column groupid drop default;
+drop sequence if exists joingroup_groupid_seq;
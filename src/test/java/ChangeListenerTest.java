@@ -0,0 +1,155 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.joshi234.playlegendgroupsystem.database.ChangeListener;
+import org.joshi234.playlegendgroupsystem.database.ChangeNotifier;
+import org.joshi234.playlegendgroupsystem.database.ChangeType;
+import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.group.Sign;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+class ChangeListenerTest {
+
+  private PostgreSQLContainer<?> container;
+  private final BlockingQueue<List<String>> memberships = new LinkedBlockingQueue<>();
+
+  @AfterEach
+  void tearDown() {
+    // Stop the listener before the database goes away
+    ChangeListener.shutdown();
+
+    // Stop the container
+    if (container != null) {
+      container.stop();
+    }
+  }
+
+  @BeforeEach
+  void setUp() throws SQLException, InterruptedException {
+    // Start a PostgreSQL container
+    container = new PostgreSQLContainer<>("postgres:latest");
+    container.start();
+
+    DatabaseManager.connect(container.getUsername(), container.getPassword(), "group",
+        container.getJdbcUrl());
+
+    ChangeListener.register(ChangeType.MEMBERSHIP, memberships::add);
+    ChangeListener.start(container.getJdbcUrl(), container.getUsername(),
+        container.getPassword());
+
+    // Notify until the listener is connected and receives the notification
+    List<String> received = null;
+    for (int attempt = 0; attempt < 100 && received == null; attempt++) {
+      notifyAsOtherServer("m:ready");
+      received = memberships.poll(100, TimeUnit.MILLISECONDS);
+    }
+    assertEquals(List.of("ready"), received);
+    Thread.sleep(200);
+    memberships.clear();
+  }
+
+  @Test
+  void testReceivesChangesOfOtherServers() throws SQLException, InterruptedException {
+    // Act
+    notifyAsOtherServer("m:player1\nplayer2");
+
+    // Assert
+    assertEquals(List.of("player1", "player2"), memberships.poll(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testSkipsOwnChanges() throws SQLException, InterruptedException {
+    // Act
+    try (Connection connection = DatabaseManager.getConnection()) {
+      ChangeNotifier.publish(connection, ChangeType.MEMBERSHIP, "own");
+    }
+    notifyAsOtherServer("m:other");
+
+    // Assert that the notification of the other server is the first one handled
+    List<String> received = memberships.poll(5, TimeUnit.SECONDS);
+    assertNotNull(received);
+    assertEquals(List.of("other"), received);
+  }
+
+  @Test
+  void testSignChangesRoundTrip() throws SQLException, InterruptedException {
+    // Arrange
+    BlockingQueue<List<String>> signs = new LinkedBlockingQueue<>();
+    ChangeListener.register(ChangeType.SIGN, signs::add);
+    DatabaseManager.migrate();
+    World world = (World) Proxy.newProxyInstance(World.class.getClassLoader(),
+        new Class<?>[]{World.class}, (proxy, method, args) -> switch (method.getName()) {
+          case "getName" -> "world";
+          case "hashCode" -> System.identityHashCode(proxy);
+          case "equals" -> proxy == args[0];
+          default -> null;
+        });
+    Location location = new Location(world, 1, 2, 3);
+
+    // Act
+    List<String> payloads = new ArrayList<>();
+    try (Connection connection = DriverManager.getConnection(container.getJdbcUrl(),
+        container.getUsername(), container.getPassword())) {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("LISTEN " + ChangeNotifier.CHANNEL);
+      }
+      Sign.addSign(location);
+      Sign.removeSign(location);
+
+      PGConnection pgConnection = connection.unwrap(PGConnection.class);
+      for (int attempt = 0; attempt < 50 && payloads.size() < 2; attempt++) {
+        PGNotification[] notifications = pgConnection.getNotifications(100);
+        if (notifications != null) {
+          for (PGNotification notification : notifications) {
+            payloads.add(notification.getParameter());
+          }
+        }
+      }
+    }
+
+    // Deliver the notifications of this server as if another server had sent them
+    assertEquals(2, payloads.size());
+    for (String payload : payloads) {
+      notifyAsOtherServer(payload.substring(ChangeNotifier.getNodeId().length() + 1));
+    }
+
+    // Assert
+    List<String> added = signs.poll(5, TimeUnit.SECONDS);
+    List<String> removed = signs.poll(5, TimeUnit.SECONDS);
+    assertNotNull(added);
+    assertNotNull(removed);
+    assertEquals(1, added.size());
+    assertTrue(added.get(0).startsWith("+"));
+    assertTrue(added.get(0).endsWith(",1,2,3,world"));
+    String signId = added.get(0).substring(1).split(",", 5)[0];
+    assertEquals(List.of("-" + signId + ",1,2,3,world"), removed);
+  }
+
+  private void notifyAsOtherServer(String change) throws SQLException {
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+      statement.setString(1, ChangeNotifier.CHANNEL);
+      statement.setString(2, "othernode:" + change);
+      statement.executeQuery().close();
+    }
+  }
+}
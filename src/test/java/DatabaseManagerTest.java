@@ -1,8 +1,29 @@
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.joshi234.playlegendgroupsystem.database.ConnectionPoolSettings;
 import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.NamedQuery;
+import org.joshi234.playlegendgroupsystem.database.QueryGuard;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -10,6 +31,8 @@ import org.testcontainers.containers.PostgreSQLContainer;
 
 public class DatabaseManagerTest {
 
+  private static final NamedQuery RELATION_COUNT = NamedQuery.define("test-relation-count",
+      "SELECT count(*) FROM pg_class WHERE relname = ?");
   private static PostgreSQLContainer<?> container;
 
   @BeforeAll
@@ -32,15 +55,8 @@ public class DatabaseManagerTest {
 
   @AfterAll
   static void tearDown() {
-    // Close the connection and stop the container
-    try {
-      Connection connection = DatabaseManager.getConnection();
-      if (connection != null) {
-        connection.close();
-      }
-    } catch (SQLException e) {
-      e.printStackTrace();
-    }
+    // Close the connection pool and stop the container
+    DatabaseManager.disconnect();
 
     if (container != null) {
       container.stop();
@@ -50,9 +66,236 @@ public class DatabaseManagerTest {
   @Test
   void testConnection() throws SQLException {
     // Retrieve the connection object
-    Connection connection = DatabaseManager.getConnection();
+    try (Connection connection = DatabaseManager.getConnection()) {
+
+      // Assert that the connection is not null
+      assertNotNull(connection);
+    }
+  }
+
+  @Test
+  void testConnectionsAreReturnedToPool() throws SQLException {
+    // Arrange
+    ConnectionPoolSettings settings = new ConnectionPoolSettings();
+    settings.setMinimumIdle(1);
+    settings.setMaximumPoolSize(2);
+    settings.setConnectionTimeout(250);
+    DatabaseManager.connect(container.getUsername(), container.getPassword(), "group",
+        container.getJdbcUrl(), settings);
+
+    // Act
+    for (int i = 0; i < 20; i++) {
+      try (Connection connection = DatabaseManager.getConnection()) {
+        assertNotNull(connection);
+      }
+    }
+
+    // Assert
+    assertEquals(20, DatabaseManager.getPoolMetrics().getAcquireCount());
+    assertEquals(0, DatabaseManager.getPoolMetrics().getActiveConnections());
+  }
+
+  @Test
+  void testPoolIsBounded() throws SQLException {
+    // Arrange
+    ConnectionPoolSettings settings = new ConnectionPoolSettings();
+    settings.setMinimumIdle(1);
+    settings.setMaximumPoolSize(2);
+    settings.setConnectionTimeout(250);
+    DatabaseManager.connect(container.getUsername(), container.getPassword(), "group",
+        container.getJdbcUrl(), settings);
+
+    // Act
+    try (Connection first = DatabaseManager.getConnection();
+        Connection second = DatabaseManager.getConnection()) {
 
-    // Assert that the connection is not null
-    assertNotNull(connection);
+      // Assert
+      assertThrows(SQLException.class, DatabaseManager::getConnection);
+      assertEquals(1, DatabaseManager.getPoolMetrics().getTimeouts());
+    }
+  }
+
+  @Test
+  void testMigrationsAreAppliedOnce() throws SQLException {
+    // Arrange
+    dropGroupSchema();
+
+    // Act
+    int applied = DatabaseManager.migrate();
+    long start = System.nanoTime();
+    int appliedAgain = DatabaseManager.migrate();
+    long upToDateMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // Assert
+    assertEquals(3, applied);
+    assertEquals(0, appliedAgain);
+    assertEquals(3, queryLong("SELECT count(*) FROM schema_version"));
+    assertEquals(3, queryLong("SELECT count(*) FROM language"));
+    assertEquals(1, queryLong("SELECT count(*) FROM \"group\""));
+    // Starting with an up to date schema must stay cheap
+    assertTrue(upToDateMillis < 1000, "Checking the schema took " + upToDateMillis + " ms");
+  }
+
+  @Test
+  void testMigrationsCreateLookupIndexesAndForeignKeyTypes() throws SQLException {
+    // Arrange
+    dropGroupSchema();
+
+    // Act
+    DatabaseManager.migrate();
+
+    // Assert
+    Set<String> indexes = new HashSet<>();
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet result = statement.executeQuery(
+            "SELECT indexname FROM pg_indexes WHERE schemaname = 'group'")) {
+      while (result.next()) {
+        indexes.add(result.getString("indexname"));
+      }
+    }
+    assertTrue(indexes.containsAll(Set.of("player_name_idx", "player_name_lower_idx",
+        "joingroup_joinuntil_idx", "joingroup_groupid_idx", "sign_position_idx")));
+
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("INSERT INTO player (uuid, name) VALUES ('migrated', 'Migrated')");
+    }
+    assertEquals(1, queryLong("SELECT count(*) FROM player WHERE languageid IS NULL"));
+    assertEquals(0, queryLong("SELECT count(*) FROM information_schema.columns "
+        + "WHERE table_schema = 'group' AND column_name IN ('languageid', 'groupid') "
+        + "AND table_name IN ('player', 'joingroup') AND column_default IS NOT NULL"));
+  }
+
+  @Test
+  void testMigrationsKeepExistingInstallations() throws SQLException, IOException {
+    // Arrange: set the database up by hand like before the migrations existed
+    dropGroupSchema();
+    DatabaseManager.createGroupSchema();
+    String dump = Files.readString(Path.of("dump.sql"))
+        .replaceAll("alter table \\S+\\s+owner to \"user\";", "");
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(dump);
+      statement.executeUpdate("INSERT INTO player (uuid, name) VALUES ('existing', 'Existing')");
+    }
+
+    // Act
+    int applied = DatabaseManager.migrate();
+
+    // Assert
+    assertEquals(3, applied);
+    assertEquals(3, queryLong("SELECT count(*) FROM language"));
+    assertEquals(1, queryLong("SELECT count(*) FROM \"group\""));
+    assertEquals(1, queryLong("SELECT languageid FROM player WHERE uuid = 'existing'"));
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet result = statement.executeQuery(
+            "SELECT to_regclass('player_languageid_seq')")) {
+      result.next();
+      assertNull(result.getString(1));
+    }
+  }
+
+  @Test
+  void testNamedQueriesArePreparedOncePerConnection() throws SQLException {
+    try (Connection connection = DatabaseManager.getConnection()) {
+      // Act
+      for (int i = 0; i < 3; i++) {
+        try (PreparedStatement statement = RELATION_COUNT.prepare(connection)) {
+          statement.setString(1, "pg_class");
+          try (ResultSet result = statement.executeQuery()) {
+            result.next();
+            assertEquals(1, result.getLong(1));
+          }
+        }
+      }
+
+      // Assert that the session holds a single server prepared statement for the query
+      try (PreparedStatement statement = connection.prepareStatement(
+          "SELECT count(*) FROM pg_prepared_statements WHERE statement = ?")) {
+        statement.setString(1, RELATION_COUNT.getSql().replace("?", "$1"));
+        try (ResultSet result = statement.executeQuery()) {
+          result.next();
+          assertEquals(1, result.getLong(1));
+        }
+      }
+    }
+  }
+
+  @Test
+  void testQueriesOnServerThreadFailInStrictMode() {
+    // Arrange
+    QueryGuard.setStrict(true);
+    QueryGuard.setServerThread(Thread.currentThread());
+
+    try {
+      // Act and assert
+      IllegalStateException error = assertThrows(IllegalStateException.class,
+          () -> queryLong("SELECT 1"));
+      assertTrue(error.getMessage().contains("SELECT 1"));
+    } finally {
+      QueryGuard.setServerThread(null);
+      QueryGuard.setStrict(Boolean.getBoolean(QueryGuard.STRICT_PROPERTY));
+    }
+
+    // Queries on other threads still run
+    assertDoesNotThrow(() -> queryLong("SELECT 1"));
+  }
+
+  @Test
+  void testSlowQueriesAreLogged() throws SQLException {
+    // Arrange
+    List<String> messages = new ArrayList<>();
+    Logger logger = Logger.getAnonymousLogger();
+    logger.setUseParentHandlers(false);
+    logger.addHandler(new Handler() {
+      @Override
+      public void publish(LogRecord record) {
+        messages.add(record.getMessage());
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    QueryGuard.setLogger(logger);
+    QueryGuard.setSlowQueryThreshold(20);
+
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "SELECT pg_sleep(?)")) {
+      // Act
+      statement.setDouble(1, 0.05);
+      statement.executeQuery().close();
+    } finally {
+      QueryGuard.setSlowQueryThreshold(100);
+      QueryGuard.setLogger(Logger.getLogger(QueryGuard.class.getName()));
+    }
+
+    // Assert
+    assertEquals(1, messages.size());
+    assertTrue(messages.get(0).contains("1 binds"));
+    assertTrue(messages.get(0).contains("SELECT pg_sleep(?)"));
+  }
+
+  private static void dropGroupSchema() throws SQLException {
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("DROP SCHEMA IF EXISTS \"group\" CASCADE");
+    }
+  }
+
+  private static long queryLong(String sql) throws SQLException {
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet result = statement.executeQuery(sql)) {
+      result.next();
+      return result.getLong(1);
+    }
   }
 }
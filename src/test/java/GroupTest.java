@@ -1,4 +1,6 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.sql.Connection;
@@ -7,6 +9,7 @@ import java.sql.SQLException;
 import java.util.List;
 import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
 import org.joshi234.playlegendgroupsystem.database.group.Group;
+import org.joshi234.playlegendgroupsystem.database.group.GroupCatalog;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -46,16 +49,17 @@ class GroupTest {
         container.getJdbcUrl());
     DatabaseManager.createGroupSchema();
     // Create the group table
-    Connection connection = DatabaseManager.getConnection();
-    PreparedStatement statement = connection.prepareStatement(
-        "CREATE TABLE \"group\" ("
-            + "groupId SERIAL PRIMARY KEY,"
-            + "name VARCHAR(255),"
-            + "prefix VARCHAR(255),"
-            + "description VARCHAR(255),"
-            + "weight int"
-            + ")");
-    statement.executeUpdate();
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "CREATE TABLE \"group\" ("
+                + "groupId SERIAL PRIMARY KEY,"
+                + "name VARCHAR(255),"
+                + "prefix VARCHAR(255),"
+                + "description VARCHAR(255),"
+                + "weight int"
+                + ")")) {
+      statement.executeUpdate();
+    }
 
   }
 
@@ -137,4 +141,48 @@ class GroupTest {
     // Assert
     assertThrows(RuntimeException.class, () -> group.loadGroup(group.getGroupId()));
   }
+
+  @Test
+  void testGroupCatalog() {
+    // Arrange
+    Group group = new Group("Group1", "G1", "Group 1 Description", 1);
+    group.createGroup();
+    GroupCatalog.reload();
+
+    // Act
+    Group group2 = new Group("Group2", "G2", "Group 2 Description", 2);
+    group2.createGroup();
+    group.updateGroup("prefix", "G3", group.getGroupId());
+
+    // Assert
+    assertNotEquals(0, group.getGroupId());
+    assertNotEquals(group.getGroupId(), group2.getGroupId());
+    assertEquals("Group2", GroupCatalog.getGroup(group2.getGroupId()).getName());
+    assertEquals(List.of("Group1", "Group2"), GroupCatalog.getGroupNames());
+    assertEquals(group.getGroupId(), GroupCatalog.getGroup("Group1").getGroupId());
+    assertNull(GroupCatalog.getGroup("gROUP1"));
+    assertEquals("G3", GroupCatalog.getGroup(group.getGroupId()).getPrefix());
+
+    group.deleteGroup(group.getGroupId());
+    assertNull(GroupCatalog.getGroup("Group1"));
+    assertEquals(List.of("Group2"), GroupCatalog.getGroupNames());
+  }
+
+  @Test
+  void testGroupCatalogKeepsNamesThatOnlyDifferInCase() {
+    // Arrange
+    Group upper = new Group("VIP", "V1", "Upper case", 1);
+    upper.createGroup();
+    Group lower = new Group("vip", "V2", "Lower case", 2);
+    lower.createGroup();
+
+    // Act
+    GroupCatalog.reload();
+
+    // Assert
+    assertEquals(upper.getGroupId(), GroupCatalog.getGroup("VIP").getGroupId());
+    assertEquals(lower.getGroupId(), GroupCatalog.getGroup("vip").getGroupId());
+    assertNull(GroupCatalog.getGroup("Vip"));
+    assertEquals(List.of("VIP", "vip"), GroupCatalog.getGroupNames());
+  }
 }
@@ -1,12 +1,26 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import net.kyori.adventure.text.Component;
+import org.joshi234.playlegendgroupsystem.ChatFormats;
+import org.joshi234.playlegendgroupsystem.PrefixComponents;
 import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.QueryGuard;
 import org.joshi234.playlegendgroupsystem.database.group.Group;
 import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroupRepository;
+import org.joshi234.playlegendgroupsystem.database.group.JoinResult;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,8 +47,10 @@ class JoinGroupTest {
 
   @BeforeEach
   void setUp() throws SQLException {
-    // Start a PostgreSQL container
-    container = new PostgreSQLContainer<>("postgres:latest");
+    // Start a PostgreSQL container that tracks executed statements
+    container = new PostgreSQLContainer<>("postgres:latest")
+        .withCommand("postgres", "-c", "fsync=off",
+            "-c", "shared_preload_libraries=pg_stat_statements");
     container.start();
 
     // Set the database connection properties
@@ -45,26 +61,27 @@ class JoinGroupTest {
         container.getJdbcUrl());
     DatabaseManager.createGroupSchema();
 
-    // Create the joingroup table
-    Connection connection = DatabaseManager.getConnection();
-    PreparedStatement statement = connection.prepareStatement(
-        "CREATE TABLE joingroup ("
-            + "uuid VARCHAR(255),"
-            + "groupid INT,"
-            + "joinuntil TIMESTAMP"
-            + ")");
-    statement.executeUpdate();
-
-    // Create the group table
-    statement = connection.prepareStatement(
-        "CREATE TABLE \"group\" ("
-            + "groupId SERIAL PRIMARY KEY,"
-            + "name VARCHAR(255),"
-            + "prefix VARCHAR(255),"
-            + "description VARCHAR(255),"
-            + "weight int"
-            + ")");
-    statement.executeUpdate();
+    try (Connection connection = DatabaseManager.getConnection()) {
+      // Create the joingroup table
+      PreparedStatement statement = connection.prepareStatement(
+          "CREATE TABLE joingroup ("
+              + "uuid VARCHAR(255),"
+              + "groupid INT,"
+              + "joinuntil TIMESTAMP"
+              + ")");
+      statement.executeUpdate();
+
+      // Create the group table
+      statement = connection.prepareStatement(
+          "CREATE TABLE \"group\" ("
+              + "groupId SERIAL PRIMARY KEY,"
+              + "name VARCHAR(255),"
+              + "prefix VARCHAR(255),"
+              + "description VARCHAR(255),"
+              + "weight int"
+              + ")");
+      statement.executeUpdate();
+    }
 
     Group group = new Group("group1", "test", "test", 1);
     group.createGroup();
@@ -140,6 +157,210 @@ class JoinGroupTest {
     assertEquals("test", prefix);
   }
 
+  @Test
+  void testGetPrefixExpiresWithMembership() throws InterruptedException {
+    // Arrange
+    JoinGroup joinGroup = new JoinGroup();
+    String uuid = "player2";
+    joinGroup.setUuid(uuid);
+    joinGroup.setGroupId(1);
+    joinGroup.setJoinUntil(new Timestamp(System.currentTimeMillis() + 1000));
+    joinGroup.joinGroup();
+    assertEquals("test", joinGroup.getPrefix(uuid));
+
+    // Act
+    Thread.sleep(1500);
+    String prefix = joinGroup.getPrefix(uuid);
+
+    // Assert
+    assertEquals("&4none", prefix);
+    assertEquals(0, joinGroup.getPlayerGroups(uuid).size());
+  }
+
+  @Test
+  void testChatFormatExpiresWithMembership() throws InterruptedException {
+    // Arrange
+    UUID uuid = UUID.randomUUID();
+    JoinGroup joinGroup = new JoinGroup();
+    joinGroup.setUuid(uuid.toString());
+    joinGroup.setGroupId(1);
+    joinGroup.setJoinUntil(new Timestamp(System.currentTimeMillis() + 1000));
+    joinGroup.joinGroup();
+    ChatFormats.prefixChanged(uuid, joinGroup.getPrefix(uuid.toString()));
+    assertEquals(PrefixComponents.getPrefix("test"), ChatFormats.getPrefix(uuid));
+
+    // Act
+    Thread.sleep(1500);
+    Component prefix = ChatFormats.getPrefix(uuid);
+
+    // Assert that the chat thread does not wait for the expired prefix to be loaded again
+    assertEquals(PrefixComponents.getPrefix("test"), prefix);
+    for (int attempt = 0; attempt < 50 && prefix.equals(PrefixComponents.getPrefix("test"));
+        attempt++) {
+      Thread.sleep(100);
+      prefix = ChatFormats.getPrefix(uuid);
+    }
+    assertEquals(PrefixComponents.getPrefix("&4none"), prefix);
+  }
+
+  @Test
+  void testChatFormatDoesNotQueryOnCacheMiss() throws InterruptedException {
+    // Arrange
+    UUID uuid = UUID.randomUUID();
+    JoinGroup joinGroup = new JoinGroup();
+    joinGroup.setUuid(uuid.toString());
+    joinGroup.setGroupId(1);
+    joinGroup.joinGroup();
+    JoinGroup.invalidatePrefix(uuid.toString());
+
+    // Act, failing if the chat thread queries the database in strict mode
+    QueryGuard.setServerThread(Thread.currentThread());
+    Component prefix;
+    try {
+      prefix = ChatFormats.getPrefix(uuid);
+    } finally {
+      QueryGuard.setServerThread(null);
+    }
+
+    // Assert that the prefix is loaded in the background
+    assertNotNull(prefix);
+    for (int attempt = 0; attempt < 50 && JoinGroup.getCachedPrefix(uuid.toString()) == null;
+        attempt++) {
+      Thread.sleep(100);
+    }
+    assertEquals(PrefixComponents.getPrefix("test"), ChatFormats.getPrefix(uuid));
+  }
+
+  @Test
+  void testGetPrefixStatementCount() throws SQLException {
+    // Arrange
+    String uuid = "player3";
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("CREATE EXTENSION IF NOT EXISTS pg_stat_statements SCHEMA public");
+
+      // One permanent membership and ten expired memberships in groups with a higher rank
+      statement.executeUpdate("INSERT INTO joingroup (uuid, groupid) VALUES ('" + uuid + "', 1)");
+      for (int i = 0; i < 10; i++) {
+        new Group("expired" + i, "expired", "expired", 0).createGroup();
+      }
+      statement.executeUpdate("INSERT INTO joingroup (uuid, groupid, joinuntil) "
+          + "SELECT '" + uuid + "', groupid, LOCALTIMESTAMP - interval '1 day' "
+          + "FROM \"group\" WHERE name LIKE 'expired%'");
+
+      statement.execute("SELECT public.pg_stat_statements_reset()");
+    }
+
+    // Act
+    String prefix = new JoinGroup().getPrefix(uuid, true);
+
+    // Assert
+    assertEquals("test", prefix);
+    assertEquals(1, countStatementsOn("joingroup"));
+    assertEquals(1, new JoinGroup().getPlayerGroups(uuid).size());
+  }
+
+  private long countStatementsOn(String table) throws SQLException {
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "SELECT coalesce(sum(calls), 0) FROM public.pg_stat_statements "
+                + "WHERE query ILIKE ? AND query NOT ILIKE '%pg_stat_statements%'")) {
+      statement.setString(1, "%" + table + "%");
+
+      try (ResultSet result = statement.executeQuery()) {
+        result.next();
+        return result.getLong(1);
+      }
+    }
+  }
+
+  @Test
+  void testDeleteExpiredJoinGroups() throws SQLException {
+    // Arrange
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("INSERT INTO joingroup (uuid, groupid, joinuntil) VALUES "
+          + "('player4', 1, LOCALTIMESTAMP - interval '1 hour'),"
+          + "('player5', 1, LOCALTIMESTAMP - interval '1 hour'),"
+          + "('player6', 1, LOCALTIMESTAMP + interval '1 hour')");
+    }
+    JoinGroup joinGroup = new JoinGroup();
+
+    // Act
+    Set<String> onlyPlayer4 = joinGroup.deleteExpiredJoinGroups(List.of("player4"));
+    Set<String> everyone = joinGroup.deleteExpiredJoinGroups(null);
+
+    // Assert
+    assertEquals(Set.of("player4"), onlyPlayer4);
+    assertEquals(Set.of("player5"), everyone);
+    assertEquals(1, joinGroup.getExpiringJoinGroups("player6").size());
+  }
+
+  @Test
+  void testGetExpiringJoinGroupsOfSeveralPlayers() throws SQLException {
+    // Arrange
+    new Group("event", "event", "event", 0).createGroup();
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("INSERT INTO joingroup (uuid, groupid, joinuntil) VALUES "
+          + "('player4', 1, LOCALTIMESTAMP + interval '2 hours'),"
+          + "('player4', 2, LOCALTIMESTAMP + interval '1 hour'),"
+          + "('player5', 1, NULL),"
+          + "('player6', 1, LOCALTIMESTAMP + interval '3 hours')");
+    }
+
+    // Act
+    List<JoinGroup> joinGroups = JoinGroupRepository
+        .getExpiringJoinGroupsAsync(List.of("player4", "player5")).join();
+
+    // Assert
+    assertEquals(2, joinGroups.size());
+    assertEquals("player4", joinGroups.get(0).getUuid());
+    assertEquals(2, joinGroups.get(0).getGroupId());
+    assertEquals("player4", joinGroups.get(1).getUuid());
+    assertEquals(1, joinGroups.get(1).getGroupId());
+  }
+
+  @Test
+  void testExpireAsyncRefreshesAlreadyDeletedMemberships() throws SQLException {
+    // Arrange
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("INSERT INTO joingroup (uuid, groupid, joinuntil) VALUES "
+          + "('player7', 1, LOCALTIMESTAMP - interval '1 hour')");
+    }
+
+    // Loading the prefix deletes the expired membership before the deadline check runs
+    assertEquals("&4none", new JoinGroup().getPrefix("player7", true));
+
+    // Act
+    Map<String, String> prefixes = JoinGroupRepository.expireAsync(List.of("player7")).join();
+
+    // Assert
+    assertEquals(Map.of("player7", "&4none"), prefixes);
+  }
+
+  @Test
+  void testExpireAllAsyncOnlyReloadsOnlinePlayers() throws SQLException {
+    // Arrange
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("INSERT INTO joingroup (uuid, groupid, joinuntil) VALUES "
+          + "('player4', 1, LOCALTIMESTAMP - interval '1 hour'),"
+          + "('player5', 1, LOCALTIMESTAMP - interval '1 hour'),"
+          + "('player6', 1, LOCALTIMESTAMP + interval '1 hour')");
+    }
+
+    // Act
+    Map<String, String> prefixes = JoinGroupRepository
+        .expireAllAsync(List.of("player4", "player6")).join();
+
+    // Assert
+    assertEquals(Map.of("player4", "&4none"), prefixes);
+    assertNull(JoinGroup.getCachedPrefix("player5"));
+    assertEquals(0, new JoinGroup().getPlayerGroups("player5").size());
+  }
+
   @Test
   void testDeleteJoinGroup() {
     // Arrange
@@ -174,4 +395,56 @@ class JoinGroupTest {
     assertEquals(1, playerGroups.size());
     assertEquals(groupName, playerGroups.get(0).getName());
   }
+
+  @Test
+  void testJoinAsync() {
+    // Arrange
+    JoinGroup joinGroup = new JoinGroup();
+    String uuid = "player1";
+    joinGroup.setUuid(uuid);
+    joinGroup.setGroupId(1);
+
+    // Act
+    String prefix = JoinGroupRepository.joinAsync(joinGroup).join();
+
+    // Assert
+    assertEquals("test", prefix);
+    assertEquals(1, JoinGroupRepository.getPlayerGroupsAsync(uuid).join().size());
+  }
+
+  @Test
+  void testJoinAndDeleteJoinGroups() throws SQLException {
+    // Arrange
+    new Group("event", "event", "event", 0).createGroup();
+    JoinGroup joinGroup = new JoinGroup();
+    List<String> uuids = List.of("player7", "player8", "player9");
+
+    // Act
+    JoinResult joined = joinGroup.joinGroups(uuids, 2, null);
+
+    // Assert
+    assertEquals(Set.copyOf(uuids), joined.joinedPlayers());
+    assertEquals(Map.of("player7", "event", "player8", "event", "player9", "event"),
+        joined.prefixes());
+    assertEquals("event", joinGroup.getPrefix("player8"));
+
+    // Joining again keeps the existing memberships
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("CREATE UNIQUE INDEX joingroup_key ON joingroup (uuid, groupid)");
+    }
+    joined = joinGroup.joinGroups(List.of("player9", "player10"), 2, null);
+    assertEquals(Set.of("player10"), joined.joinedPlayers());
+    assertEquals(1, joinGroup.getPlayerGroups("player9").size());
+    assertEquals("event", joinGroup.getPrefix("player10"));
+
+    // Act
+    Map<String, String> leftPrefixes = joinGroup.deleteJoinGroups(List.of("player7", "player8"),
+        2);
+
+    // Assert
+    assertEquals(Map.of("player7", "&4none", "player8", "&4none"), leftPrefixes);
+    assertEquals("&4none", joinGroup.getPrefix("player8"));
+    assertEquals(1, joinGroup.getPlayerGroups("player9").size());
+  }
 }
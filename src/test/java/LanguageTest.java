@@ -1,4 +1,5 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -172,4 +173,73 @@ class LanguageTest {
     String languageCode = language.loadLanguageByPlayer("player1");
     assertEquals("en", languageCode);
   }
+
+  @Test
+  void testLoadLanguageByPlayerCacheMiss() throws SQLException {
+    // Arrange
+    try (PreparedStatement statement = connection.prepareStatement(
+        "INSERT INTO player (uuid, languageId) VALUES (?, ?)")) {
+      statement.setString(1, "player2");
+      statement.setInt(2, 3);
+      statement.executeUpdate();
+    }
+
+    // Act
+    String languageCode = new Language().loadLanguageByPlayer("player2");
+
+    // Assert
+    assertEquals("de", languageCode);
+  }
+
+  @Test
+  void testLoadLanguageByPlayerCachesMissingPreference() throws SQLException {
+    // Arrange
+    try (PreparedStatement statement = connection.prepareStatement(
+        "INSERT INTO player (uuid, languageId) VALUES (?, NULL)")) {
+      statement.setString(1, "player4");
+      statement.executeUpdate();
+    }
+    Language language = new Language();
+    assertNull(language.loadLanguageByPlayer("player4"));
+
+    // Act
+    try (PreparedStatement statement = connection.prepareStatement(
+        "UPDATE player SET languageId = 2 WHERE uuid = ?")) {
+      statement.setString(1, "player4");
+      statement.executeUpdate();
+    }
+
+    // Assert that the missing preference is served from the cache
+    assertNull(language.loadLanguageByPlayer("player4"));
+
+    Language.evictLanguage("player4");
+    assertEquals("fr", language.loadLanguageByPlayer("player4"));
+  }
+
+  @Test
+  void testSetPlayerLanguageUpdatesCache() throws SQLException {
+    // Arrange
+    try (PreparedStatement statement = connection.prepareStatement(
+        "INSERT INTO player (uuid, languageId) VALUES (?, ?)")) {
+      statement.setString(1, "player3");
+      statement.setInt(2, 1);
+      statement.executeUpdate();
+    }
+    Language language = new Language();
+    assertEquals("en", language.loadLanguageByPlayer("player3"));
+
+    // Act
+    language.setPlayerLanguage("player3", 2);
+
+    // Assert that the new preference is served from the cache
+    try (PreparedStatement statement = connection.prepareStatement(
+        "DELETE FROM player WHERE uuid = ?")) {
+      statement.setString(1, "player3");
+      statement.executeUpdate();
+    }
+    assertEquals("fr", language.loadLanguageByPlayer("player3"));
+
+    Language.evictLanguage("player3");
+    assertNull(language.loadLanguageByPlayer("player3"));
+  }
 }
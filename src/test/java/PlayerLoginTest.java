@@ -0,0 +1,155 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
+import org.joshi234.playlegendgroupsystem.database.group.Group;
+import org.joshi234.playlegendgroupsystem.database.group.JoinGroup;
+import org.joshi234.playlegendgroupsystem.database.group.Language;
+import org.joshi234.playlegendgroupsystem.database.group.PlayerLogin;
+import org.joshi234.playlegendgroupsystem.database.group.PlayerRepository;
+import org.joshi234.playlegendgroupsystem.database.group.PlayerWriteBuffer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+class PlayerLoginTest {
+
+  private static PostgreSQLContainer<?> container;
+
+  @AfterAll
+  static void tearDown() throws SQLException {
+    // Drop the player, language, joingroup and group tables
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "DROP TABLE IF EXISTS player,language,joingroup,\"group\"")) {
+      statement.executeUpdate();
+    }
+
+    // Stop the container
+    if (container != null) {
+      container.stop();
+    }
+  }
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    // Start a PostgreSQL container
+    container = new PostgreSQLContainer<>("postgres:latest");
+    container.start();
+
+    // Set the database connection properties
+    System.setProperty("database.user", container.getUsername());
+    System.setProperty("database.password", container.getPassword());
+    System.setProperty("database.connection-string", container.getJdbcUrl());
+    DatabaseManager.connect(container.getUsername(), container.getPassword(), "group",
+        container.getJdbcUrl());
+    DatabaseManager.createGroupSchema();
+
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      // Create the language and player tables
+      statement.executeUpdate("CREATE TABLE language ("
+          + "languageId SERIAL PRIMARY KEY,"
+          + "name VARCHAR(255),"
+          + "code VARCHAR(255)"
+          + ")");
+      statement.executeUpdate("INSERT INTO language (name, code) VALUES "
+          + "('English', 'en'), ('Deutsch', 'de')");
+      statement.executeUpdate("CREATE TABLE player ("
+          + "uuid VARCHAR(255) PRIMARY KEY,"
+          + "name VARCHAR(255),"
+          + "languageId INT REFERENCES language(languageId)"
+          + ")");
+
+      // Create the joingroup and group tables
+      statement.executeUpdate("CREATE TABLE joingroup ("
+          + "uuid VARCHAR(255),"
+          + "groupid INT,"
+          + "joinuntil TIMESTAMP"
+          + ")");
+      statement.executeUpdate("CREATE TABLE \"group\" ("
+          + "groupId SERIAL PRIMARY KEY,"
+          + "name VARCHAR(255),"
+          + "prefix VARCHAR(255),"
+          + "description VARCHAR(255),"
+          + "weight int"
+          + ")");
+    }
+
+    new Group("player", "&7Player", "default", 10).createGroup();
+    new Group("admin", "&4Admin", "staff", 1).createGroup();
+
+    // Write name changes left over by other tests
+    PlayerWriteBuffer.flush();
+  }
+
+  @Test
+  void testLoginNewPlayer() throws SQLException {
+    // Act
+    PlayerLogin login = PlayerRepository.loginAsync("login1", "Newcomer", "player").join();
+
+    // Assert
+    assertTrue(login.isCreated());
+    assertNull(login.getStoredName());
+    assertNull(login.getLanguageCode());
+    assertEquals("&7Player", login.getPrefix());
+    assertEquals(1, login.getGroups().size());
+    assertEquals("player", login.getGroups().get(0).getName());
+    assertEquals(1, countRows("SELECT count(*) FROM joingroup WHERE uuid = 'login1'"));
+    assertEquals(1, countRows("SELECT count(*) FROM player WHERE name = 'Newcomer'"));
+    assertEquals("&7Player", new JoinGroup().getPrefix("login1"));
+  }
+
+  @Test
+  void testLoginExistingPlayer() throws SQLException {
+    // Arrange
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate(
+          "INSERT INTO player (uuid, name, languageId) VALUES ('login2', 'OldName', 2)");
+      statement.executeUpdate("INSERT INTO joingroup (uuid, groupid, joinuntil) VALUES "
+          + "('login2', 1, NULL),"
+          + "('login2', 2, LOCALTIMESTAMP + interval '1 hour'),"
+          + "('login2', 2, LOCALTIMESTAMP - interval '1 hour')");
+    }
+
+    // Act
+    PlayerLogin login = new PlayerLogin();
+    login.login("login2", "NewName", "player");
+
+    // Assert
+    assertFalse(login.isCreated());
+    assertEquals("OldName", login.getStoredName());
+    assertEquals("de", login.getLanguageCode());
+    assertEquals("de", new Language().loadLanguageByPlayer("login2"));
+    assertEquals("&4Admin", login.getPrefix());
+    assertEquals(2, login.getGroups().size());
+    assertEquals(1, login.getExpiringJoinGroups().size());
+    assertEquals(2, login.getExpiringJoinGroups().get(0).getGroupId());
+    assertEquals(1, PlayerWriteBuffer.getPendingCount());
+    assertEquals(0, countRows("SELECT count(*) FROM player WHERE name = 'NewName'"));
+    PlayerWriteBuffer.flush();
+    assertEquals(0, PlayerWriteBuffer.getPendingCount());
+    assertEquals(1, countRows("SELECT count(*) FROM player WHERE name = 'NewName'"));
+    assertEquals(2, countRows("SELECT count(*) FROM joingroup WHERE uuid = 'login2'"));
+
+    Language.evictLanguage("login2");
+  }
+
+  private long countRows(String sql) throws SQLException {
+    try (Connection connection = DatabaseManager.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet result = statement.executeQuery(sql)) {
+      result.next();
+      return result.getLong(1);
+    }
+  }
+}
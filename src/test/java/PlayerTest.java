@@ -1,12 +1,16 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.joshi234.playlegendgroupsystem.database.DatabaseManager;
 import org.joshi234.playlegendgroupsystem.database.group.Player;
+import org.joshi234.playlegendgroupsystem.database.group.PlayerWriteBuffer;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,10 +22,10 @@ class PlayerTest {
 
   @AfterAll
   static void tearDown() throws SQLException {
-    // Drop the player table
+    // Drop the player and language tables
     try (Connection connection = DatabaseManager.getConnection();
         PreparedStatement statement = connection.prepareStatement(
-            "DROP TABLE IF EXISTS player")) {
+            "DROP TABLE IF EXISTS player, language")) {
       statement.executeUpdate();
     }
 
@@ -45,14 +49,23 @@ class PlayerTest {
         container.getJdbcUrl());
     DatabaseManager.createGroupSchema();
 
-    // Create the player table
-    Connection connection = DatabaseManager.getConnection();
-    PreparedStatement statement = connection.prepareStatement(
-        "CREATE TABLE player ("
-            + "uuid VARCHAR(255) PRIMARY KEY,"
-            + "name VARCHAR(255)"
-            + ")");
-    statement.executeUpdate();
+    // Create the language and player tables
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement languageStatement = connection.prepareStatement(
+            "CREATE TABLE language ("
+                + "languageId SERIAL PRIMARY KEY,"
+                + "name VARCHAR(255),"
+                + "code VARCHAR(255)"
+                + ")");
+        PreparedStatement playerStatement = connection.prepareStatement(
+            "CREATE TABLE player ("
+                + "uuid VARCHAR(255) PRIMARY KEY,"
+                + "name VARCHAR(255),"
+                + "languageId INT REFERENCES language(languageId)"
+                + ")")) {
+      languageStatement.executeUpdate();
+      playerStatement.executeUpdate();
+    }
   }
 
   @Test
@@ -76,9 +89,9 @@ class PlayerTest {
     String name = "Test Player";
 
     // Create a player
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("INSERT INTO player (uuid, name) VALUES (?, ?)");
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("INSERT INTO player (uuid, name) VALUES (?, ?)")) {
       statement.setString(1, uuid);
       statement.setString(2, name);
       statement.executeUpdate();
@@ -101,9 +114,9 @@ class PlayerTest {
     String name = "Test Player";
 
     // Create a player
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("INSERT INTO player (uuid, name) VALUES (?, ?)");
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("INSERT INTO player (uuid, name) VALUES (?, ?)")) {
       statement.setString(1, uuid);
       statement.setString(2, name);
       statement.executeUpdate();
@@ -120,6 +133,33 @@ class PlayerTest {
     assertEquals(name, player.getName());
   }
 
+  @Test
+  void testLoadByNameIgnoresCase() {
+    // Arrange
+    String uuid = UUID.randomUUID().toString();
+
+    // Create a player
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("INSERT INTO player (uuid, name) VALUES (?, ?)")) {
+      statement.setString(1, uuid);
+      statement.setString(2, "CasedName");
+      statement.executeUpdate();
+    } catch (SQLException e) {
+      e.printStackTrace();
+    }
+
+    // Act
+    Player player = new Player();
+    player.loadByName("casedname");
+
+    // Assert
+    assertEquals(uuid, player.getUuid());
+    assertEquals("CasedName", player.getName());
+    assertEquals(Map.of("CASEDNAME", uuid),
+        new Player().loadUuidsByNames(List.of("CASEDNAME", "Unknown")));
+  }
+
   @Test
   void testUpdateUserName() {
     // Arrange
@@ -127,9 +167,9 @@ class PlayerTest {
     String name = "Test Player";
 
     // Create a player
-    try {
-      PreparedStatement statement = DatabaseManager.getConnection()
-          .prepareStatement("INSERT INTO player (uuid, name) VALUES (?, ?)");
+    try (Connection connection = DatabaseManager.getConnection();
+        PreparedStatement statement = connection
+            .prepareStatement("INSERT INTO player (uuid, name) VALUES (?, ?)")) {
       statement.setString(1, uuid);
       statement.setString(2, name);
       statement.executeUpdate();
@@ -147,4 +187,53 @@ class PlayerTest {
     assertEquals(uuid, player.getUuid());
     assertEquals("New Name", player.getName());
   }
+
+  @Test
+  void testGetPlayerNames() {
+    // Arrange
+    new Player(UUID.randomUUID().toString(), "Player1");
+    new Player(UUID.randomUUID().toString(), "Player2");
+
+    // Act
+    List<String> playerNames = new Player().getPlayerNames();
+
+    // Assert
+    assertEquals(2, playerNames.size());
+    assertTrue(playerNames.containsAll(List.of("Player1", "Player2")));
+  }
+
+  @Test
+  void testNameUpdateIsWrittenBehind() {
+    // Arrange
+    String uuid = UUID.randomUUID().toString();
+    new Player(uuid, "Old Name");
+
+    // Act
+    new Player(uuid, "Renamed Player");
+    Player pending = new Player();
+    pending.loadByName("Renamed Player");
+    PlayerWriteBuffer.flush();
+
+    // Assert
+    assertEquals(uuid, pending.getUuid());
+    assertEquals("Renamed Player", pending.getName());
+    assertEquals(0, PlayerWriteBuffer.getPendingCount());
+    assertTrue(new Player().getPlayerNames().contains("Renamed Player"));
+  }
+
+  @Test
+  void testLoadUuidsByNames() {
+    // Arrange
+    String uuid1 = UUID.randomUUID().toString();
+    String uuid2 = UUID.randomUUID().toString();
+    new Player(uuid1, "Player1");
+    new Player(uuid2, "Player2");
+
+    // Act
+    Map<String, String> uuids = new Player()
+        .loadUuidsByNames(List.of("Player1", "Player2", "Unknown"));
+
+    // Assert
+    assertEquals(Map.of("Player1", uuid1, "Player2", uuid2), uuids);
+  }
 }